@@ -0,0 +1,167 @@
+/*
+ * This file is part of HuskHomesGUI, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.gui.benchmark;
+
+import net.william278.annotaml.Annotaml;
+import net.william278.huskhomes.gui.config.ConfigSnapshot;
+import net.william278.huskhomes.gui.config.Locales;
+import net.william278.huskhomes.gui.config.LocalesFile;
+import net.william278.huskhomes.gui.config.Settings;
+import net.william278.huskhomes.gui.config.TextWrapper;
+import net.william278.huskhomes.position.*;
+import net.william278.huskhomes.user.User;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * Synthetic config, homes and warps for the benchmarks
+ * <p>
+ * Everything here is built from the plain HuskHomes and Bukkit data classes, so benchmarks run headless without a
+ * server or the HuskHomes plugin being loaded. Data is generated from a fixed seed so runs are comparable.
+ */
+public final class BenchmarkFixtures {
+
+    private static final String ICON_TAG_KEY = "huskhomesgui:icon";
+    private static final String[] ICONS = {
+            "minecraft:diamond", "minecraft:oak_sapling", "minecraft:red_bed", "minecraft:compass", "not_a_material"
+    };
+    private static final String[] DESCRIPTIONS = {
+            "",
+            "My base",
+            "Starter house by the spawn lake, with a small wheat farm and the first nether portal",
+            "Iron farm & villager trading hall - bring a bed and some emeralds before you visit!",
+            "Shared storage room. Please sort items into the labelled chests and don't take the shulker boxes",
+            "主城附近的小屋，有农场和附魔台",
+            "Build [in progress] (don't touch) **megabase** wall, ~40% done\nNext: roof & lighting",
+    };
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * Load the default settings and the bundled {@code en-gb} locales
+     *
+     * @param dataFolder The folder to write the default config file to
+     * @return A config snapshot as the plugin would publish on enable
+     * @see ConfigState
+     */
+    @NotNull
+    static ConfigSnapshot loadConfig(@NotNull File dataFolder) {
+        try (InputStream localesFile = BenchmarkFixtures.class.getClassLoader()
+                .getResourceAsStream("locales/en-gb.yml")) {
+            final Settings settings = Annotaml.create(new File(dataFolder, "config.yml"), Settings.class).get();
+            final Locales locales = new Locales(Annotaml.create(LocalesFile.class, localesFile).get().rawLocales);
+            return new ConfigSnapshot(settings, settings.resolveIcons(Logger.getLogger("HuskHomesGUI")), locales,
+                    new TextWrapper(locales, settings.getTextWrapLength()));
+        } catch (InvocationTargetException | InstantiationException | IllegalAccessException | IOException e) {
+            throw new IllegalStateException("Failed to load benchmark config", e);
+        }
+    }
+
+    /**
+     * Delete a folder and everything in it
+     *
+     * @param folder The folder to delete
+     * @throws IOException If a file could not be deleted
+     */
+    static void deleteRecursively(@NotNull Path folder) throws IOException {
+        try (Stream<Path> paths = Files.walk(folder)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    /**
+     * Get the sample descriptions positions are generated with
+     *
+     * @return The sample descriptions
+     */
+    @NotNull
+    static String[] getDescriptions() {
+        return DESCRIPTIONS.clone();
+    }
+
+    @NotNull
+    static User createOwner() {
+        return User.of(new UUID(0L, 1L), "William278");
+    }
+
+    /**
+     * Generate homes owned by a user
+     *
+     * @param count The number of homes to generate
+     * @param owner The owner of the homes
+     * @return The homes
+     */
+    @NotNull
+    static List<Home> createHomes(int count, @NotNull User owner) {
+        final Random random = new Random(count);
+        final List<Home> homes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            final Home home = Home.from(createPosition(random), createMeta("home_" + i, random), owner);
+            home.setPublic(random.nextInt(4) == 0);
+            homes.add(home);
+        }
+        return homes;
+    }
+
+    /**
+     * Generate warps
+     *
+     * @param count The number of warps to generate
+     * @return The warps
+     */
+    @NotNull
+    public static List<Warp> createWarps(int count) {
+        final Random random = new Random(-count);
+        final List<Warp> warps = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            warps.add(Warp.from(createPosition(random), createMeta("warp_" + i, random)));
+        }
+        return warps;
+    }
+
+    @NotNull
+    private static Position createPosition(@NotNull Random random) {
+        return Position.at(random.nextInt(20000) - 10000, 64 + random.nextInt(128), random.nextInt(20000) - 10000,
+                random.nextFloat() * 360f, 0f, World.from("world", new UUID(0L, 0L)), "server");
+    }
+
+    // Half of the positions get an icon tag, some of which don't match a material
+    @NotNull
+    private static PositionMeta createMeta(@NotNull String name, @NotNull Random random) {
+        final PositionMeta meta = new PositionMeta(name, DESCRIPTIONS[random.nextInt(DESCRIPTIONS.length)]);
+        if (random.nextBoolean()) {
+            meta.getTags().put(ICON_TAG_KEY, ICONS[random.nextInt(ICONS.length)]);
+        }
+        return meta;
+    }
+
+}
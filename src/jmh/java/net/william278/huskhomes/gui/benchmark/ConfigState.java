@@ -0,0 +1,57 @@
+/*
+ * This file is part of HuskHomesGUI, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.gui.benchmark;
+
+import net.william278.huskhomes.gui.config.ConfigSnapshot;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * The default settings and bundled {@code en-gb} locales, loaded into a temporary data folder for each trial
+ * <p>
+ * Benchmarks take this as a parameter of their setup method, so the data folder is deleted when the trial ends.
+ */
+@State(Scope.Benchmark)
+public class ConfigState {
+
+    private Path dataFolder;
+    private ConfigSnapshot config;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        dataFolder = Files.createTempDirectory("huskhomesgui-jmh");
+        config = BenchmarkFixtures.loadConfig(dataFolder.toFile());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        BenchmarkFixtures.deleteRecursively(dataFolder);
+    }
+
+    @NotNull
+    public ConfigSnapshot getConfig() {
+        return config;
+    }
+
+}
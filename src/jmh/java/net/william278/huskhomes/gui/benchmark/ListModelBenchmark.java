@@ -0,0 +1,85 @@
+/*
+ * This file is part of HuskHomesGUI, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.gui.benchmark;
+
+import net.william278.huskhomes.gui.config.ConfigSnapshot;
+import net.william278.huskhomes.gui.menu.ListModel;
+import net.william278.huskhomes.position.Home;
+import net.william278.huskhomes.position.Warp;
+import net.william278.huskhomes.user.User;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks building the list menu model, which renders the name, lore and icon of every listed position, and
+ * searching it
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ListModelBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    private int size;
+
+    private ConfigSnapshot config;
+    private User owner;
+    private List<Home> homes;
+    private List<Warp> warps;
+    private ListModel<Warp> warpModel;
+
+    @Setup
+    public void setup(@NotNull ConfigState state) {
+        config = state.getConfig();
+        owner = BenchmarkFixtures.createOwner();
+        homes = BenchmarkFixtures.createHomes(size, owner);
+        warps = BenchmarkFixtures.createWarps(size);
+        warpModel = ListModel.warps(config, warps);
+    }
+
+    @Benchmark
+    public ListModel<Home> homes() {
+        return ListModel.homes(config, homes, owner);
+    }
+
+    @Benchmark
+    public ListModel<Home> publicHomes() {
+        return ListModel.publicHomes(config, homes);
+    }
+
+    @Benchmark
+    public ListModel<Warp> warps() {
+        return ListModel.warps(config, warps);
+    }
+
+    @Benchmark
+    public List<Warp> search() {
+        return warpModel.search("farm");
+    }
+
+    @Benchmark
+    public List<Warp> searchShortQuery() {
+        return warpModel.search("ir");
+    }
+
+}
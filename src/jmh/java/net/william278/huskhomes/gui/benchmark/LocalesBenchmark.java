@@ -0,0 +1,72 @@
+/*
+ * This file is part of HuskHomesGUI, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.gui.benchmark;
+
+import net.william278.huskhomes.gui.config.Locales;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks formatting locales and escaping replacements
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class LocalesBenchmark {
+
+    private Locales locales;
+    private String[] descriptions;
+    private int next;
+
+    @Setup
+    public void setup(@NotNull ConfigState state) {
+        locales = state.getConfig().locales();
+        descriptions = BenchmarkFixtures.getDescriptions();
+    }
+
+    // Cycle through the sample descriptions, so results aren't skewed by a single input
+    private String nextDescription() {
+        next = (next + 1) % descriptions.length;
+        return descriptions[next];
+    }
+
+    @Benchmark
+    public String getLocale() {
+        return locales.getLocale("item_description_blank");
+    }
+
+    @Benchmark
+    public String getLocaleWithReplacement() {
+        return locales.getLocale("item_name", nextDescription());
+    }
+
+    @Benchmark
+    public String getRawLocale() {
+        return locales.getRawLocale("item_name").orElse("");
+    }
+
+    @Benchmark
+    public String escapeText() {
+        return Locales.escapeText(nextDescription());
+    }
+
+}
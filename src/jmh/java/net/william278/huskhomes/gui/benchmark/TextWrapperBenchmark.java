@@ -0,0 +1,64 @@
+/*
+ * This file is part of HuskHomesGUI, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.gui.benchmark;
+
+import net.william278.huskhomes.gui.config.Locales;
+import net.william278.huskhomes.gui.config.TextWrapper;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks wrapping descriptions into lore lines, both uncached and through the memoised path
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TextWrapperBenchmark {
+
+    private Locales locales;
+    private TextWrapper cachedWrapper;
+    private String[] descriptions;
+    private int next;
+
+    @Setup
+    public void setup(@NotNull ConfigState state) {
+        locales = state.getConfig().locales();
+        cachedWrapper = new TextWrapper(locales, 17);
+        descriptions = BenchmarkFixtures.getDescriptions();
+    }
+
+    private String nextDescription() {
+        next = (next + 1) % descriptions.length;
+        return descriptions[next];
+    }
+
+    @Benchmark
+    public String wrap() {
+        return new TextWrapper(locales, 17).wrap(nextDescription());
+    }
+
+    @Benchmark
+    public String wrapCached() {
+        return cachedWrapper.wrap(nextDescription());
+    }
+
+}
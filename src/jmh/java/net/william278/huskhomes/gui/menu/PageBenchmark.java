@@ -0,0 +1,115 @@
+/*
+ * This file is part of HuskHomesGUI, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.gui.menu;
+
+import be.seeseemelk.mockbukkit.MockBukkit;
+import be.seeseemelk.mockbukkit.ServerMock;
+import de.themoep.inventorygui.GuiElement;
+import de.themoep.inventorygui.InventoryGui;
+import de.themoep.inventorygui.StaticGuiElement;
+import net.william278.huskhomes.gui.benchmark.BenchmarkFixtures;
+import net.william278.huskhomes.gui.benchmark.ConfigState;
+import net.william278.huskhomes.position.Warp;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks creating the elements and items of one list menu page through {@link LazyElementGroup}, with the list
+ * model already built
+ * <p>
+ * MockBukkit provides the server, so items get real meta. Each invocation drops the created elements first, so a page
+ * is measured as it is on first view, without the plugin's item cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PageBenchmark {
+
+    private static final String[] LAYOUT = {
+            "ppppppppp",
+            "ppppppppp",
+            "ppppppppp",
+            "ppppppppp",
+            "ppppppppp",
+            " l ois n "
+    };
+
+    @Param({"10", "1000", "10000"})
+    private int size;
+
+    private ListModel<Warp> model;
+    private LazyElementGroup<Warp> group;
+    private Player viewer;
+    private int middlePage;
+
+    @Setup
+    public void setup(@NotNull ConfigState state) {
+        final ServerMock server = MockBukkit.mock();
+        viewer = server.addPlayer();
+        model = ListModel.warps(state.getConfig(), BenchmarkFixtures.createWarps(size));
+
+        final InventoryGui gui = new InventoryGui(MockBukkit.createMockPlugin(), model.getTitle(), LAYOUT);
+        group = new LazyElementGroup<>('p', model.getPositions(), this::createButton);
+        gui.addElement(group);
+        middlePage = model.getPositions().size() / group.getSlots().length / 2;
+    }
+
+    @TearDown
+    public void tearDown() {
+        MockBukkit.unmock();
+    }
+
+    // Create a position button as ListMenu does, without the item cache, skull skins and click handling
+    @NotNull
+    private GuiElement createButton(@NotNull Warp warp) {
+        final ListModel.Entry entry = model.getEntry(warp);
+        return new StaticGuiElement('e', ItemStackCache.createItem(entry.icon(), entry.text()));
+    }
+
+    @Benchmark
+    public ItemStack firstPage() {
+        return drawPage(0);
+    }
+
+    @Benchmark
+    public ItemStack middlePage() {
+        return drawPage(middlePage);
+    }
+
+    // Create the elements of a page afresh and get the item for each slot, as drawing the page does
+    @Nullable
+    private ItemStack drawPage(int page) {
+        group.clearElements();
+        ItemStack last = null;
+        for (int slot : group.getSlots()) {
+            final GuiElement element = group.getElement(slot, page);
+            if (element != null) {
+                last = element.getItem(viewer, slot);
+            }
+        }
+        return last;
+    }
+
+}
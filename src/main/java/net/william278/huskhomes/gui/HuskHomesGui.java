@@ -23,38 +23,202 @@ import net.kyori.adventure.platform.AudienceProvider;
 import net.kyori.adventure.platform.bukkit.BukkitAudiences;
 import net.william278.desertwell.util.Version;
 import net.william278.huskhomes.gui.command.HuskHomesGuiCommand;
-import net.william278.huskhomes.gui.config.Locales;
-import net.william278.huskhomes.gui.config.Settings;
+import net.william278.huskhomes.gui.config.ConfigSnapshot;
 import net.william278.huskhomes.gui.listener.ListListener;
+import net.william278.huskhomes.gui.listener.MenuListener;
+import net.william278.huskhomes.gui.menu.CacheInvalidator;
+import net.william278.huskhomes.gui.menu.ClickGuard;
+import net.william278.huskhomes.gui.menu.ItemStackCache;
+import net.william278.huskhomes.gui.menu.MenuManager;
+import net.william278.huskhomes.gui.menu.MenuWarmUp;
+import net.william278.huskhomes.gui.menu.MetaTagWriter;
+import net.william278.huskhomes.gui.menu.SharedListModels;
+import net.william278.huskhomes.gui.menu.TeleportDispatcher;
+import net.william278.huskhomes.gui.metrics.Metrics;
+import net.william278.huskhomes.gui.network.LocalInvalidationBroker;
+import net.william278.huskhomes.gui.network.PluginMessageInvalidationBus;
+import net.william278.huskhomes.gui.skull.BukkitProfileResolver;
+import net.william278.huskhomes.gui.skull.SkullCache;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.jetbrains.annotations.NotNull;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 import java.util.logging.Level;
 
 public class HuskHomesGui extends JavaPlugin implements HuskHomesGuiPlugin {
+    private static final long SKULL_CACHE_SAVE_TICKS = 20L * 60 * 5;
+
     private BukkitAudiences adventure;
-    private Settings settings;
-    private Locales locales;
+    private volatile ConfigSnapshot config;
+    private MetaTagWriter metaTagWriter;
+    private CacheInvalidator cacheInvalidator;
+    private SkullCache skullCache;
+    private final ItemStackCache itemStackCache = new ItemStackCache();
+    private final SharedListModels sharedListModels = new SharedListModels();
+    private final MenuManager menuManager = new MenuManager();
+    private final ClickGuard clickGuard = new ClickGuard(this);
+    private final TeleportDispatcher teleportDispatcher = new TeleportDispatcher(this);
 
     public void onEnable() {
         // Load audiences
         this.adventure = BukkitAudiences.create(this);
+        this.metaTagWriter = new MetaTagWriter(this);
 
         // Load settings and locales
-        this.reloadConfigFiles();
+        final ConfigSnapshot loaded = loadConfigFiles();
+        this.config = loaded;
+        Metrics.setEnabled(loaded.settings().isMetricsEnabled());
+        runAsync(() -> warmUp(loaded));
+
+        // Connect to the other servers to invalidate menu caches over, or keep invalidations local
+        this.cacheInvalidator = new CacheInvalidator(sharedListModels, menuManager,
+                loaded.settings().isCrossServerInvalidation()
+                        ? new PluginMessageInvalidationBus(this)
+                        : new LocalInvalidationBroker().connect());
+
+        // Load cached player head skins, and re-render heads in open menus as their skins are looked up
+        this.skullCache = new SkullCache(new File(getDataFolder(), "cache/skulls.tsv"), new BukkitProfileResolver());
+        skullCache.setListener(player -> runSync(() -> menuManager.skinResolved(player)));
+        runAsync(() -> {
+            try {
+                skullCache.load();
+            } catch (IOException e) {
+                getLogger().log(Level.WARNING, "Failed to load the player head cache", e);
+            }
+        });
+        getServer().getScheduler().runTaskTimerAsynchronously(this, this::saveSkullCache,
+                SKULL_CACHE_SAVE_TICKS, SKULL_CACHE_SAVE_TICKS);
 
         // Register event listener and command
         getServer().getPluginManager().registerEvents(new ListListener(this), this);
+        getServer().getPluginManager().registerEvents(new MenuListener(this), this);
         Objects.requireNonNull(getCommand("huskhomesgui")).setExecutor(new HuskHomesGuiCommand(this));
 
         // Log to console
         getLogger().log(Level.INFO, "Successfully enabled HuskHomes v" + getDescription().getVersion());
     }
 
-    public void reloadConfigFiles() {
-        this.settings = loadSettings();
-        this.locales = loadLocales();
+    @Override
+    public void onDisable() {
+        // Close and destroy any menus still open
+        menuManager.destroyAll();
+        if (cacheInvalidator != null) {
+            cacheInvalidator.close();
+        }
+        if (skullCache != null) {
+            saveSkullCache();
+        }
+
+        // Write any icon changes still waiting in the queue
+        if (metaTagWriter != null) {
+            metaTagWriter.drain();
+        }
+    }
+
+    /**
+     * Reload and warm up the config files off the main thread, then publish the new settings and locales together
+     *
+     * @return A future completed on the main thread once the new config is in use
+     */
+    @NotNull
+    public CompletableFuture<Void> reloadConfigFiles() {
+        final CompletableFuture<Void> future = new CompletableFuture<>();
+        runAsync(() -> {
+            try {
+                final ConfigSnapshot loaded = loadConfigFiles();
+                warmUp(loaded);
+                runSync(() -> {
+                    this.config = loaded;
+                    Metrics.setEnabled(loaded.settings().isMetricsEnabled());
+                    future.complete(null);
+                });
+            } catch (IllegalStateException e) {
+                getLogger().log(Level.SEVERE, "Failed to reload config files", e);
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    // Write looked up player head skins to disk, if any have changed
+    private void saveSkullCache() {
+        try {
+            skullCache.save();
+        } catch (IOException e) {
+            getLogger().log(Level.WARNING, "Failed to save the player head cache", e);
+        }
+    }
+
+    // Warm up the menus for a newly loaded config, so the first menus opened with it are as quick as later ones. The
+    // data is warmed up on the calling thread, and the sample items are then built on the main thread.
+    private void warmUp(@NotNull ConfigSnapshot config) {
+        try {
+            final MenuWarmUp warmUp = MenuWarmUp.run(config);
+            runSync(() -> warmUp.buildItems(this));
+        } catch (RuntimeException e) {
+            getLogger().log(Level.WARNING, "Failed to warm up menus", e);
+        }
+    }
+
+    /**
+     * Run a task on an async scheduler thread
+     *
+     * @param runnable The task to run
+     */
+    public void runAsync(@NotNull Runnable runnable) {
+        getServer().getScheduler().runTaskAsynchronously(this, runnable);
+    }
+
+    /**
+     * Run a task on the main server thread, on the next tick
+     *
+     * @param runnable The task to run
+     */
+    public void runSync(@NotNull Runnable runnable) {
+        getServer().getScheduler().runTask(this, runnable);
+    }
+
+    @NotNull
+    public MetaTagWriter getMetaTagWriter() {
+        return metaTagWriter;
+    }
+
+    @NotNull
+    public CacheInvalidator getCacheInvalidator() {
+        return cacheInvalidator;
+    }
+
+    @NotNull
+    public SkullCache getSkullCache() {
+        return skullCache;
+    }
+
+    @NotNull
+    public ItemStackCache getItemStackCache() {
+        return itemStackCache;
+    }
+
+    @NotNull
+    public ClickGuard getClickGuard() {
+        return clickGuard;
+    }
+
+    @NotNull
+    public TeleportDispatcher getTeleportDispatcher() {
+        return teleportDispatcher;
+    }
+
+    @NotNull
+    public MenuManager getMenuManager() {
+        return menuManager;
+    }
+
+    @NotNull
+    public SharedListModels getSharedListModels() {
+        return sharedListModels;
     }
 
     @Override
@@ -71,13 +235,7 @@ public class HuskHomesGui extends JavaPlugin implements HuskHomesGuiPlugin {
 
     @Override
     @NotNull
-    public Settings getSettings() {
-        return settings;
-    }
-
-    @Override
-    @NotNull
-    public Locales getLocales() {
-        return locales;
+    public ConfigSnapshot getConfigSnapshot() {
+        return config;
     }
 }
@@ -22,22 +22,41 @@ package net.william278.huskhomes.gui;
 import net.kyori.adventure.platform.AudienceProvider;
 import net.william278.annotaml.Annotaml;
 import net.william278.desertwell.util.Version;
+import net.william278.huskhomes.gui.config.ConfigSnapshot;
 import net.william278.huskhomes.gui.config.Locales;
+import net.william278.huskhomes.gui.config.LocalesFile;
 import net.william278.huskhomes.gui.config.Settings;
+import net.william278.huskhomes.gui.config.TextWrapper;
 import org.jetbrains.annotations.NotNull;
 
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.lang.reflect.InvocationTargetException;
+import java.util.logging.Logger;
 
 public interface HuskHomesGuiPlugin {
 
+    /**
+     * Load the settings and locales, reading and parsing each file once
+     * <p>
+     * This does not touch any server state, so it is safe to call off the main thread
+     *
+     * @return The loaded config
+     */
     @NotNull
-    default Locales loadLocales() {
+    default ConfigSnapshot loadConfigFiles() {
+        final Settings settings = loadSettings();
+        final Locales locales = loadLocales(settings.getLanguage());
+        return new ConfigSnapshot(settings, settings.resolveIcons(getLogger()), locales,
+                new TextWrapper(locales, settings.getTextWrapLength()));
+    }
+
+    @NotNull
+    default Locales loadLocales(@NotNull String language) {
         try {
-            return Annotaml.create(new File(getDataFolder(), "messages-" + loadSettings().getLanguage() + ".yml"),
-                    Annotaml.create(Locales.class, getResource("locales/" + loadSettings().getLanguage() + ".yml")).get()).get();
+            return new Locales(Annotaml.create(new File(getDataFolder(), "messages-" + language + ".yml"),
+                    Annotaml.create(LocalesFile.class, getResource("locales/" + language + ".yml")).get()).get().rawLocales);
         } catch (InvocationTargetException | InstantiationException | IllegalAccessException | IOException e) {
             throw new IllegalStateException("Failed to load locales file", e);
         }
@@ -59,10 +78,29 @@ public interface HuskHomesGuiPlugin {
     Version getPluginVersion();
 
     @NotNull
-    Settings getSettings();
+    ConfigSnapshot getConfigSnapshot();
+
+    @NotNull
+    default Settings getSettings() {
+        return getConfigSnapshot().settings();
+    }
+
+    @NotNull
+    default Settings.Icons getIcons() {
+        return getConfigSnapshot().icons();
+    }
 
     @NotNull
-    Locales getLocales();
+    default Locales getLocales() {
+        return getConfigSnapshot().locales();
+    }
+
+    @NotNull
+    default TextWrapper getTextWrapper() {
+        return getConfigSnapshot().textWrapper();
+    }
+
+    Logger getLogger();
 
     File getDataFolder();
 
@@ -25,6 +25,8 @@ import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.TextColor;
 import net.william278.desertwell.about.AboutMenu;
 import net.william278.huskhomes.gui.HuskHomesGui;
+import net.william278.huskhomes.gui.metrics.LatencyHistogram;
+import net.william278.huskhomes.gui.metrics.Metrics;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
@@ -33,6 +35,8 @@ import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.StringJoiner;
 
 public class HuskHomesGuiCommand implements CommandExecutor, TabExecutor {
     private final HuskHomesGui plugin;
@@ -73,9 +77,11 @@ public class HuskHomesGuiCommand implements CommandExecutor, TabExecutor {
 
         final String subCommand = args.length >= 1 ? args[0] : "";
         if (subCommand.equals("reload")) {
-            plugin.reloadConfigFiles();
-            audience.sendMessage(new MineDown("[[HuskHomesGUI]](#00fb9a bold) [Reloaded config files!](#00fb9a)")
-                    .toComponent());
+            plugin.reloadConfigFiles().whenComplete((ignored, e) -> audience.sendMessage(e == null
+                    ? new MineDown("[[HuskHomesGUI]](#00fb9a bold) [Reloaded config files!](#00fb9a)").toComponent()
+                    : new MineDown("[[HuskHomesGUI]](#ff3300 bold) [Failed to reload config files, check the console for details.](#ff3300)").toComponent()));
+        } else if (subCommand.equals("stats")) {
+            sendStats(audience, args.length >= 2 && args[1].equals("reset"));
         } else {
             audience.sendMessage(aboutMenu.toComponent());
         }
@@ -85,7 +91,41 @@ public class HuskHomesGuiCommand implements CommandExecutor, TabExecutor {
     @Override
     public List<String> onTabComplete(@NotNull CommandSender sender, @NotNull Command command,
                                       @NotNull String label, @NotNull String[] args) {
-        return this.filter(List.of("reload", "about"), args);
+        if (args.length == 2 && args[0].equals("stats")) {
+            return this.filter(List.of("reset"), args);
+        }
+        return this.filter(List.of("reload", "stats", "about"), args);
+    }
+
+    // Send the recorded latencies of each instrumented operation, then optionally clear them
+    private void sendStats(@NotNull Audience audience, boolean reset) {
+        if (!Metrics.isEnabled()) {
+            audience.sendMessage(new MineDown("[[HuskHomesGUI]](#ff3300 bold) [Metrics are disabled. Set metrics.enabled to true in config.yml and reload to record them.](#ff3300)").toComponent());
+            return;
+        }
+
+        final StringJoiner stats = new StringJoiner("\n");
+        stats.add("[[HuskHomesGUI]](#00fb9a bold) [Menu metrics (count, p50, p99, max):](#00fb9a)");
+        for (Metrics.Operation operation : Metrics.Operation.values()) {
+            final LatencyHistogram.Snapshot snapshot = Metrics.getSnapshot(operation);
+            stats.add("[• " + operation.getId() + ":](gray) [" + snapshot.getCount() + ", "
+                      + formatNanos(snapshot.getPercentile(50)) + ", "
+                      + formatNanos(snapshot.getPercentile(99)) + ", "
+                      + formatNanos(snapshot.getMax()) + "](white)");
+        }
+        if (reset) {
+            Metrics.reset();
+            stats.add("[Metrics have been reset.](#00fb9a)");
+        }
+        audience.sendMessage(new MineDown(stats.toString()).toComponent());
+    }
+
+    @NotNull
+    private static String formatNanos(long nanos) {
+        if (nanos < 1_000_000L) {
+            return String.format(Locale.ROOT, "%.1fµs", nanos / 1_000d);
+        }
+        return String.format(Locale.ROOT, "%.2fms", nanos / 1_000_000d);
     }
 
     @NotNull
@@ -0,0 +1,37 @@
+/*
+ * This file is part of HuskHomesGUI, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.gui.config;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The settings and locales from one load of the config files, along with the state derived from them
+ * <p>
+ * A reload publishes a new snapshot as a whole, so a menu holding on to one never mixes settings and locales from
+ * different loads.
+ *
+ * @param settings    The plugin settings
+ * @param icons       The icons resolved from the settings
+ * @param locales     The locales for the configured language
+ * @param textWrapper The description wrapper for the configured wrap length and locales
+ */
+public record ConfigSnapshot(@NotNull Settings settings, @NotNull Settings.Icons icons,
+                             @NotNull Locales locales, @NotNull TextWrapper textWrapper) {
+}
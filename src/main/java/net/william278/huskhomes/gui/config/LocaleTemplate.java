@@ -0,0 +1,158 @@
+/*
+ * This file is part of HuskHomesGUI, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.gui.config;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A raw locale, pre-split into literal segments and numbered {@code %n%} placeholder slots
+ */
+final class LocaleTemplate {
+
+    // Builders grown past this capacity by a long replacement are dropped rather than kept for the thread
+    private static final int MAX_RETAINED_CAPACITY = 8192;
+    private static final ThreadLocal<StringBuilder> BUILDER = ThreadLocal.withInitial(() -> new StringBuilder(256));
+
+    private final String raw;
+    private final String[] literals;
+    private final int[] slots;
+
+    private LocaleTemplate(@NotNull String raw, @NotNull String[] literals, @NotNull int[] slots) {
+        this.raw = raw;
+        this.literals = literals;
+        this.slots = slots;
+    }
+
+    /**
+     * Compile an (unescaped) raw locale into a template
+     *
+     * @param raw The raw locale
+     * @return The compiled template
+     */
+    @NotNull
+    static LocaleTemplate compile(@NotNull String raw) {
+        final List<String> literals = new ArrayList<>();
+        final List<Integer> slots = new ArrayList<>();
+        int literalStart = 0;
+        int i = 0;
+        while (i < raw.length()) {
+            final int end = findPlaceholderEnd(raw, i);
+            if (end == -1) {
+                i++;
+                continue;
+            }
+            literals.add(raw.substring(literalStart, i));
+            slots.add(Integer.parseInt(raw, i + 1, end, 10));
+            literalStart = i = end + 1;
+        }
+        literals.add(raw.substring(literalStart));
+        return new LocaleTemplate(raw, literals.toArray(String[]::new),
+                slots.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    // Returns the index of the closing '%' of a %n% placeholder starting at the given index, or -1 if there is none
+    private static int findPlaceholderEnd(@NotNull String raw, int start) {
+        if (raw.charAt(start) != '%' || start + 2 >= raw.length()) {
+            return -1;
+        }
+        final char first = raw.charAt(start + 1);
+        if (first < '1' || first > '9') {
+            return -1;
+        }
+        for (int i = start + 2; i < raw.length() && i <= start + 4; i++) {
+            final char c = raw.charAt(i);
+            if (c == '%') {
+                return i;
+            } else if (c < '0' || c > '9') {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Fill in the placeholder slots of this template
+     * <p>
+     * Slots without a matching replacement are left as their literal {@code %n%} placeholder
+     *
+     * @param replacements Ordered array of replacement strings to fill in placeholders with
+     * @return The template with replacements applied
+     */
+    @NotNull
+    String apply(@NotNull String... replacements) {
+        return apply(false, replacements);
+    }
+
+    /**
+     * Fill in the placeholder slots of this template, MineDown-escaping each replacement as it is written
+     *
+     * @param replacements Ordered array of replacement strings to escape and fill in placeholders with
+     * @return The template with escaped replacements applied
+     * @see Locales#escapeText(String)
+     */
+    @NotNull
+    String applyEscaped(@NotNull String... replacements) {
+        return apply(true, replacements);
+    }
+
+    // Write the literals and replacements into this thread's builder in one pass, so only the result is allocated
+    @NotNull
+    private String apply(boolean escape, @NotNull String[] replacements) {
+        if (slots.length == 0) {
+            return raw;
+        }
+        final StringBuilder builder = BUILDER.get();
+        builder.setLength(0);
+        for (int i = 0; i < slots.length; i++) {
+            builder.append(literals[i]);
+            final int slot = slots[i];
+            if (slot > replacements.length) {
+                builder.append('%').append(slot).append('%');
+            } else if (escape) {
+                Locales.appendEscaped(builder, replacements[slot - 1]);
+            } else {
+                builder.append(replacements[slot - 1]);
+            }
+        }
+        final String result = builder.append(literals[slots.length]).toString();
+        if (builder.capacity() > MAX_RETAINED_CAPACITY) {
+            BUILDER.remove();
+        }
+        return result;
+    }
+
+    /**
+     * Whether this template has no placeholder slots, and so always formats to the same string
+     *
+     * @return {@code true} if the template has no slots
+     */
+    boolean isConstant() {
+        return slots.length == 0;
+    }
+
+    @NotNull
+    String getRaw() {
+        return raw;
+    }
+
+}
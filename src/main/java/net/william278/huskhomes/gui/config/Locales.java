@@ -20,34 +20,76 @@
 package net.william278.huskhomes.gui.config;
 
 import de.themoep.minedown.adventure.MineDown;
+import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
-import net.william278.annotaml.YamlFile;
-import net.william278.huskhomes.gui.HuskHomesGui;
+import net.william278.huskhomes.gui.metrics.Metrics;
 import org.apache.commons.text.StringEscapeUtils;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.*;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-
-import static org.bukkit.Bukkit.getLogger;
-
-@YamlFile(header = """
-        ┏━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━┓
-        ┃     HuskHomesGui Locales     ┃
-        ┃    Developed by William278   ┃
-        ┣━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━┛
-        ┗╸ Formatted in MineDown: https://github.com/Phoenix616/MineDown""",
-        rootedMap = true)
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The plugin locales, compiled from a {@link LocalesFile}
+ * <p>
+ * Each raw locale is unescaped and split into a {@link LocaleTemplate} once, when the file is loaded. Formatted output
+ * and parsed components of locales without replacements are cached, so a {@code Locales} instance should be replaced,
+ * not mutated, on reload.
+ */
 public class Locales {
 
+    private static final LegacyComponentSerializer SERIALIZER = LegacyComponentSerializer.builder().build();
+    private static final AtomicLong GENERATIONS = new AtomicLong();
+
+    /**
+     * Sequence number of this set of locales, which increases every time the locales are loaded
+     */
+    private final long generation = GENERATIONS.incrementAndGet();
+
+    /**
+     * The compiled set of locales, keyed by locale id
+     */
+    private final Map<String, LocaleTemplate> templates;
+
+    /**
+     * Cache of formatted output for locales that take no replacements
+     */
+    private final Map<String, String> formatted = new ConcurrentHashMap<>();
+
     /**
-     * The raw set of locales loaded from yaml
+     * Cache of parsed components for locales that take no replacements
      */
-    public Map<String, String> rawLocales = new HashMap<>();
+    private final Map<String, Component> components = new ConcurrentHashMap<>();
 
-    @SuppressWarnings("unused")
-    private Locales() {
+    public Locales(@NotNull Map<String, String> rawLocales) {
+        final Map<String, LocaleTemplate> templates = new HashMap<>();
+        rawLocales.forEach((id, locale) -> {
+            if (locale != null) {
+                templates.put(id, LocaleTemplate.compile(StringEscapeUtils.unescapeJava(locale)));
+            }
+        });
+        this.templates = Collections.unmodifiableMap(templates);
+    }
+
+    /**
+     * Get the generation of this set of locales, for keying caches of formatted output
+     *
+     * @return The generation, which is unique to each load of the locales
+     */
+    public long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Format and parse every locale that takes no replacements, so later lookups of them are served from the cache
+     */
+    public void warmUp() {
+        templates.forEach((id, template) -> {
+            if (template.isConstant()) {
+                formatted.computeIfAbsent(id, key -> SERIALIZER.serialize(getConstant(key, template)));
+            }
+        });
     }
 
     /**
@@ -57,7 +99,7 @@ public class Locales {
      * @return An {@link Optional} containing the locale corresponding to the id, if it exists
      */
     public Optional<String> getRawLocale(@NotNull String localeId) {
-        return Optional.ofNullable(rawLocales.get(localeId)).map(StringEscapeUtils::unescapeJava);
+        return Optional.ofNullable(templates.get(localeId)).map(LocaleTemplate::getRaw);
     }
 
     /**
@@ -70,7 +112,7 @@ public class Locales {
      * @return An {@link Optional} containing the replacement-applied locale corresponding to the id, if it exists
      */
     public Optional<String> getRawLocale(@NotNull String localeId, @NotNull String... replacements) {
-        return getRawLocale(localeId).map(locale -> applyReplacements(locale, replacements));
+        return Optional.ofNullable(templates.get(localeId)).map(template -> template.apply(replacements));
     }
 
     /**
@@ -94,29 +136,57 @@ public class Locales {
      */
     @NotNull
     public String getLocale(@NotNull String localeId, @NotNull String... replacements) {
-        return getRawLocale(localeId, Arrays.stream(replacements)
-                .map(Locales::escapeText).toArray(String[]::new))
-                .map(MineDown::new).map(MineDown::toComponent)
-                .map(LegacyComponentSerializer.builder().build()::serialize)
-                .orElse("");
+        final long start = Metrics.start();
+        try {
+            final LocaleTemplate template = templates.get(localeId);
+            if (template == null) {
+                return "";
+            }
+            if (replacements.length == 0 || template.isConstant()) {
+                return formatted.computeIfAbsent(localeId, id -> SERIALIZER.serialize(getConstant(id, template)));
+            }
+            return SERIALIZER.serialize(parse(template.applyEscaped(replacements)));
+        } finally {
+            Metrics.record(Metrics.Operation.LOCALE_FORMAT, start);
+        }
     }
 
     /**
-     * Apply placeholder replacements to a raw locale
+     * Returns a locale from the locales file, parsed from MineDown into a component
+     * <p>
+     * Use this over {@link #getLocale(String, String...)} where the text can be set as a component, to skip
+     * serializing it to a legacy string that is only parsed back again. Replacements will be MineDown-escaped.
      *
-     * @param rawLocale    The raw, unparsed locale
+     * @param localeId     String identifier of the locale, corresponding to a key in the file
      * @param replacements Ordered array of replacement strings to fill in placeholders with
-     * @return the raw locale, with inserted placeholders
+     * @return The replacement-applied, parsed locale; or an empty component if it doesn't exist
      */
     @NotNull
-    private String applyReplacements(@NotNull String rawLocale, @NotNull String... replacements) {
-        int replacementIndexer = 1;
-        for (String replacement : replacements) {
-            String replacementString = "%" + replacementIndexer + "%";
-            rawLocale = rawLocale.replace(replacementString, replacement);
-            replacementIndexer += 1;
+    public Component getComponent(@NotNull String localeId, @NotNull String... replacements) {
+        final long start = Metrics.start();
+        try {
+            final LocaleTemplate template = templates.get(localeId);
+            if (template == null) {
+                return Component.empty();
+            }
+            if (replacements.length == 0 || template.isConstant()) {
+                return getConstant(localeId, template);
+            }
+            return parse(template.applyEscaped(replacements));
+        } finally {
+            Metrics.record(Metrics.Operation.LOCALE_FORMAT, start);
         }
-        return rawLocale;
+    }
+
+    @NotNull
+    private Component getConstant(@NotNull String localeId, @NotNull LocaleTemplate template) {
+        return components.computeIfAbsent(localeId, id -> parse(template.getRaw()));
+    }
+
+    // Parse a raw locale as MineDown
+    @NotNull
+    private static Component parse(@NotNull String locale) {
+        return new MineDown(locale).toComponent();
     }
 
     /**
@@ -127,7 +197,12 @@ public class Locales {
      */
     @NotNull
     public static String escapeText(@NotNull String string) {
-        final StringBuilder value = new StringBuilder();
+        return appendEscaped(new StringBuilder(string.length() + 8), string).toString();
+    }
+
+    // Append a string to a builder, escaped from MineDown formatting
+    @NotNull
+    static StringBuilder appendEscaped(@NotNull StringBuilder value, @NotNull String string) {
         for (int i = 0; i < string.length(); ++i) {
             char c = string.charAt(i);
             boolean isEscape = c == '\\';
@@ -139,28 +214,7 @@ public class Locales {
 
             value.append(c);
         }
-        return value.toString();
-    }
-
-
-    /**
-     * Wraps the given string to a new line after every (int) characters.
-     *
-     * @param string the string to be wrapped, cannot be null
-     * @return the wrapped string
-     * @throws NullPointerException if the string is null
-     */
-    public static String textWrap(@NotNull HuskHomesGui plugin, @NotNull String string) {
-        // ([\x00-\xFF]{1,2}|.?){27}
-        Matcher matcher = Pattern.compile("([\\x00-\\xFF]{1,2}|.?){"+ plugin.getSettings().getTextWrapLength() +"}").matcher(string);
-        StringBuilder out = new StringBuilder();
-
-        while (matcher.find()) {
-            if (!matcher.group().trim().equals("")) {
-                out.append(plugin.getLocales().getLocale("item_description_line_style", matcher.group().trim()));
-            }
-        }
-        return String.valueOf(out);
+        return value;
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,50 @@
+/*
+ * This file is part of HuskHomesGUI, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.gui.config;
+
+import net.william278.annotaml.YamlFile;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The locales file, as it is read from and written to yaml
+ * <p>
+ * This only holds the raw strings; see {@link Locales} for the compiled form used by menus
+ */
+@YamlFile(header = """
+        ┏━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━┓
+        ┃     HuskHomesGui Locales     ┃
+        ┃    Developed by William278   ┃
+        ┣━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━┛
+        ┗╸ Formatted in MineDown: https://github.com/Phoenix616/MineDown""",
+        rootedMap = true)
+public class LocalesFile {
+
+    /**
+     * The raw set of locales loaded from yaml
+     */
+    public Map<String, String> rawLocales = new HashMap<>();
+
+    @SuppressWarnings("unused")
+    private LocalesFile() {
+    }
+
+}
@@ -25,7 +25,9 @@ import net.william278.annotaml.YamlKey;
 import org.bukkit.Material;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.Optional;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 @YamlFile(header = """
         ┏━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━┓
@@ -47,6 +49,12 @@ public class Settings {
     private boolean displayControlsHelpInCore = false;
     @YamlKey("menu.text_wrap_length")
     private int textWrapLength = 17;
+    @YamlKey("menu.clicks.debounce_millis")
+    private int clickDebounceMillis = 150;
+    @YamlKey("menu.clicks.max_per_second")
+    private int maxClicksPerSecond = 8;
+    @YamlKey("menu.public_homes.show_owner_heads")
+    private boolean showOwnerHeads = false;
 
     @YamlKey("menu.items.homes_filler")
     private String homesFillerItem = "minecraft:air";
@@ -66,6 +74,12 @@ public class Settings {
     private String paginateLastPage = "minecraft:spectral_arrow";
     @YamlKey("menu.icons.controls_icon")
     private String controlsIcon = "minecraft:oak_sign";
+    @YamlKey("menu.icons.search_button")
+    private String searchButtonIcon = "minecraft:compass";
+    @YamlKey("menu.icons.sort_button")
+    private String sortButtonIcon = "minecraft:hopper";
+    @YamlKey("menu.icons.owner_head_placeholder")
+    private String ownerHeadPlaceholderIcon = "minecraft:player_head";
 
     @YamlComment("Options for the home/warp editor GUI")
     @YamlKey("editor.icons.home_editor_filler")
@@ -87,6 +101,14 @@ public class Settings {
     @YamlKey("editor.icons.delete_button")
     private String editorDeleteButtonIcon = "minecraft:barrier";
 
+    @YamlComment("Send menu edits to other servers over plugin messaging, so they drop stale entries (requires a restart). Messages need an online player to carry them, so edits made while this server is empty are sent when the next player joins")
+    @YamlKey("cross_server.invalidation")
+    private boolean crossServerInvalidation = false;
+
+    @YamlComment("Record menu and locale timings, shown with /huskhomesgui stats")
+    @YamlKey("metrics.enabled")
+    private boolean metricsEnabled = false;
+
     @SuppressWarnings("unused")
     private Settings() {
     }
@@ -112,99 +134,215 @@ public class Settings {
         return textWrapLength;
     }
 
-    @NotNull
-    public Material getHomesFillerItem() {
-        return getMaterial(homesFillerItem);
-    }
-
-    @NotNull
-    public Material getPublicHomesFillerItem() {
-        return getMaterial(publicHomesFillerItem);
-    }
-
-    @NotNull
-    public Material getWarpsFillerItem() {
-        return getMaterial(warpsFillerItem);
-    }
-
-    @NotNull
-    public Material getDefaultIcon() {
-        return getMaterial(defaultIcon);
-    }
-
-    @NotNull
-    public Material getPaginateFirstPage() {
-        return getMaterial(paginateFirstPage);
-    }
-
-    @NotNull
-    public Material getPaginatePreviousPage() {
-        return getMaterial(paginatePreviousPage);
-    }
-
-    @NotNull
-    public Material getPaginateNextPage() {
-        return getMaterial(paginateNextPage);
-    }
-
-    @NotNull
-    public Material getPaginateLastPage() {
-        return getMaterial(paginateLastPage);
-    }
-
-    @NotNull
-    public Material getControlsIcon() {
-        return getMaterial(controlsIcon);
-    }
-
-    @NotNull
-    public Material getHomeEditorFillerIcon() {
-        return getMaterial(homeEditorFillerIcon);
-    }
-
-    @NotNull
-    public Material getWarpEditorFillerIcon() {
-        return getMaterial(warpEditorFillerIcon);
-    }
-
-    @NotNull
-    public Material getEditorBackButtonIcon() {
-        return getMaterial(editorBackButtonIcon);
+    public long getClickDebounceMillis() {
+        return Math.max(0, clickDebounceMillis);
     }
 
-    @NotNull
-    public Material getComingSOONButton() {
-        return getMaterial(commingSoonIcon);
+    public int getMaxClicksPerSecond() {
+        return Math.max(1, maxClicksPerSecond);
     }
 
-    @NotNull
-    public Material getEditorEditLocationButtonIcon() {
-        return getMaterial(editorEditLocationButtonIcon);
+    public boolean doShowOwnerHeads() {
+        return showOwnerHeads;
     }
 
-    @NotNull
-    public Material getEditorEditNameButtonIcon() {
-        return getMaterial(editorEditNameButtonIcon);
+    public boolean isCrossServerInvalidation() {
+        return crossServerInvalidation;
     }
 
-    @NotNull
-    public Material getEditorEditDescriptionButtonIcon() {
-        return getMaterial(editorEditDescriptionButtonIcon);
+    public boolean isMetricsEnabled() {
+        return metricsEnabled;
     }
 
+    /**
+     * Resolve the configured icon ids into an {@link Icons} snapshot, logging any ids that do not match a material
+     *
+     * @param logger The logger to warn about unknown ids with
+     * @return The resolved icons
+     */
     @NotNull
-    public Material getEditorEditPrivacyButtonIcon() {
-        return getMaterial(editorEditPrivacyButtonIcon);
+    public Icons resolveIcons(@NotNull Logger logger) {
+        return new Icons(this, logger);
     }
 
-    @NotNull
-    public Material getEditorDeleteButtonIcon() {
-        return getMaterial(editorDeleteButtonIcon);
-    }
-
-    @NotNull
-    private Material getMaterial(@NotNull String id) {
-        id = id.replace("minecraft:", "");
-        return Optional.ofNullable(Material.matchMaterial(id)).orElse(Material.STONE);
+    /**
+     * An immutable snapshot of the configured menu icons, resolved to {@link Material}s once when settings are loaded
+     */
+    public static final class Icons {
+
+        private final Material homesFillerItem;
+        private final Material publicHomesFillerItem;
+        private final Material warpsFillerItem;
+        private final Material defaultIcon;
+        private final Material paginateFirstPage;
+        private final Material paginatePreviousPage;
+        private final Material paginateNextPage;
+        private final Material paginateLastPage;
+        private final Material controlsIcon;
+        private final Material searchButtonIcon;
+        private final Material sortButtonIcon;
+        private final Material ownerHeadPlaceholderIcon;
+        private final Material homeEditorFillerIcon;
+        private final Material warpEditorFillerIcon;
+        private final Material editorBackButtonIcon;
+        private final Material comingSoonIcon;
+        private final Material editorEditLocationButtonIcon;
+        private final Material editorEditNameButtonIcon;
+        private final Material editorEditDescriptionButtonIcon;
+        private final Material editorEditPrivacyButtonIcon;
+        private final Material editorDeleteButtonIcon;
+
+        private Icons(@NotNull Settings settings, @NotNull Logger logger) {
+            this.homesFillerItem = resolve(settings.homesFillerItem, logger);
+            this.publicHomesFillerItem = resolve(settings.publicHomesFillerItem, logger);
+            this.warpsFillerItem = resolve(settings.warpsFillerItem, logger);
+            this.defaultIcon = resolve(settings.defaultIcon, logger);
+            this.paginateFirstPage = resolve(settings.paginateFirstPage, logger);
+            this.paginatePreviousPage = resolve(settings.paginatePreviousPage, logger);
+            this.paginateNextPage = resolve(settings.paginateNextPage, logger);
+            this.paginateLastPage = resolve(settings.paginateLastPage, logger);
+            this.controlsIcon = resolve(settings.controlsIcon, logger);
+            this.searchButtonIcon = resolve(settings.searchButtonIcon, logger);
+            this.sortButtonIcon = resolve(settings.sortButtonIcon, logger);
+            this.ownerHeadPlaceholderIcon = resolve(settings.ownerHeadPlaceholderIcon, logger);
+            this.homeEditorFillerIcon = resolve(settings.homeEditorFillerIcon, logger);
+            this.warpEditorFillerIcon = resolve(settings.warpEditorFillerIcon, logger);
+            this.editorBackButtonIcon = resolve(settings.editorBackButtonIcon, logger);
+            this.comingSoonIcon = resolve(settings.commingSoonIcon, logger);
+            this.editorEditLocationButtonIcon = resolve(settings.editorEditLocationButtonIcon, logger);
+            this.editorEditNameButtonIcon = resolve(settings.editorEditNameButtonIcon, logger);
+            this.editorEditDescriptionButtonIcon = resolve(settings.editorEditDescriptionButtonIcon, logger);
+            this.editorEditPrivacyButtonIcon = resolve(settings.editorEditPrivacyButtonIcon, logger);
+            this.editorDeleteButtonIcon = resolve(settings.editorDeleteButtonIcon, logger);
+        }
+
+        /**
+         * Get every configured icon
+         *
+         * @return The icon materials, which may contain duplicates
+         */
+        @NotNull
+        public List<Material> getAll() {
+            return List.of(homesFillerItem, publicHomesFillerItem, warpsFillerItem, defaultIcon, paginateFirstPage,
+                    paginatePreviousPage, paginateNextPage, paginateLastPage, controlsIcon, searchButtonIcon,
+                    sortButtonIcon, ownerHeadPlaceholderIcon, homeEditorFillerIcon, warpEditorFillerIcon, editorBackButtonIcon, comingSoonIcon,
+                    editorEditLocationButtonIcon, editorEditNameButtonIcon, editorEditDescriptionButtonIcon,
+                    editorEditPrivacyButtonIcon, editorDeleteButtonIcon);
+        }
+
+        @NotNull
+        private static Material resolve(@NotNull String id, @NotNull Logger logger) {
+            final Material material = Material.matchMaterial(id.replace("minecraft:", ""));
+            if (material == null) {
+                logger.log(Level.WARNING, "Unknown icon material \"" + id + "\" in config.yml, using stone instead");
+                return Material.STONE;
+            }
+            return material;
+        }
+
+        @NotNull
+        public Material getHomesFillerItem() {
+            return homesFillerItem;
+        }
+
+        @NotNull
+        public Material getPublicHomesFillerItem() {
+            return publicHomesFillerItem;
+        }
+
+        @NotNull
+        public Material getWarpsFillerItem() {
+            return warpsFillerItem;
+        }
+
+        @NotNull
+        public Material getDefaultIcon() {
+            return defaultIcon;
+        }
+
+        @NotNull
+        public Material getPaginateFirstPage() {
+            return paginateFirstPage;
+        }
+
+        @NotNull
+        public Material getPaginatePreviousPage() {
+            return paginatePreviousPage;
+        }
+
+        @NotNull
+        public Material getPaginateNextPage() {
+            return paginateNextPage;
+        }
+
+        @NotNull
+        public Material getPaginateLastPage() {
+            return paginateLastPage;
+        }
+
+        @NotNull
+        public Material getControlsIcon() {
+            return controlsIcon;
+        }
+
+        @NotNull
+        public Material getSearchButtonIcon() {
+            return searchButtonIcon;
+        }
+
+        @NotNull
+        public Material getSortButtonIcon() {
+            return sortButtonIcon;
+        }
+
+        @NotNull
+        public Material getOwnerHeadPlaceholderIcon() {
+            return ownerHeadPlaceholderIcon;
+        }
+
+        @NotNull
+        public Material getHomeEditorFillerIcon() {
+            return homeEditorFillerIcon;
+        }
+
+        @NotNull
+        public Material getWarpEditorFillerIcon() {
+            return warpEditorFillerIcon;
+        }
+
+        @NotNull
+        public Material getEditorBackButtonIcon() {
+            return editorBackButtonIcon;
+        }
+
+        @NotNull
+        public Material getComingSOONButton() {
+            return comingSoonIcon;
+        }
+
+        @NotNull
+        public Material getEditorEditLocationButtonIcon() {
+            return editorEditLocationButtonIcon;
+        }
+
+        @NotNull
+        public Material getEditorEditNameButtonIcon() {
+            return editorEditNameButtonIcon;
+        }
+
+        @NotNull
+        public Material getEditorEditDescriptionButtonIcon() {
+            return editorEditDescriptionButtonIcon;
+        }
+
+        @NotNull
+        public Material getEditorEditPrivacyButtonIcon() {
+            return editorEditPrivacyButtonIcon;
+        }
+
+        @NotNull
+        public Material getEditorDeleteButtonIcon() {
+            return editorDeleteButtonIcon;
+        }
     }
 }
@@ -0,0 +1,141 @@
+/*
+ * This file is part of HuskHomesGUI, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.gui.config;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Wraps descriptions into lines of {@code item_description_line_style} for item lore
+ * <p>
+ * Line length is measured in columns: most characters take one column, while CJK and other East Asian wide
+ * characters take two. A line holds twice the configured {@code text_wrap_length} in columns, which matches the old
+ * behaviour of fitting two Latin characters, or one wide character, per unit of wrap length.
+ * <p>
+ * A wrapper is built for one {@link Settings} and {@link Locales} pair, and memoises the most recently wrapped
+ * lines.
+ */
+public class TextWrapper {
+
+    private static final int MAX_CACHED = 1024;
+
+    private final Locales locales;
+    private final int maxColumns;
+    private final Map<String, String> wrapped = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+            return size() > MAX_CACHED;
+        }
+    };
+
+    public TextWrapper(@NotNull Locales locales, int wrapLength) {
+        this.locales = locales;
+        this.maxColumns = Math.max(1, wrapLength) * 2;
+    }
+
+    /**
+     * Wrap a string into styled description lines
+     *
+     * @param string The string to wrap
+     * @return The wrapped string, with each line formatted as an {@code item_description_line_style} locale
+     */
+    @NotNull
+    public String wrap(@NotNull String string) {
+        synchronized (wrapped) {
+            final String cached = wrapped.get(string);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        final String result = wrapLines(string);
+        synchronized (wrapped) {
+            wrapped.put(string, result);
+        }
+        return result;
+    }
+
+    // Split the string into lines of at most maxColumns columns in a single pass
+    @NotNull
+    private String wrapLines(@NotNull String string) {
+        final StringBuilder out = new StringBuilder();
+        int lineStart = 0;
+        int columns = 0;
+        int i = 0;
+        while (i < string.length()) {
+            final int codePoint = string.codePointAt(i);
+            final int width = getColumnWidth(codePoint);
+            if (codePoint == '\n' || columns + width > maxColumns) {
+                appendLine(out, string, lineStart, i);
+                lineStart = codePoint == '\n' ? i + 1 : i;
+                columns = codePoint == '\n' ? 0 : width;
+            } else {
+                columns += width;
+            }
+            i += Character.charCount(codePoint);
+        }
+        appendLine(out, string, lineStart, string.length());
+        return out.toString();
+    }
+
+    // Append a trimmed line to the output, skipping blank lines
+    private void appendLine(@NotNull StringBuilder out, @NotNull String string, int start, int end) {
+        while (start < end && Character.isWhitespace(string.charAt(start))) {
+            start++;
+        }
+        while (end > start && Character.isWhitespace(string.charAt(end - 1))) {
+            end--;
+        }
+        if (start < end) {
+            out.append(locales.getLocale("item_description_line_style", string.substring(start, end)));
+        }
+    }
+
+    /**
+     * Get the number of columns a character takes up when rendered
+     *
+     * @param codePoint The character code point
+     * @return {@code 2} for East Asian wide and fullwidth characters, {@code 0} for line breaks, otherwise {@code 1}
+     */
+    static int getColumnWidth(int codePoint) {
+        if (codePoint == '\n') {
+            return 0;
+        }
+        if (codePoint < 0x1100) {
+            return 1;
+        }
+        return (codePoint <= 0x115F // Hangul Jamo
+                || (codePoint >= 0x2E80 && codePoint <= 0x303E) // CJK radicals, symbols and punctuation
+                || (codePoint >= 0x3041 && codePoint <= 0x33FF) // Kana, Bopomofo, CJK compatibility
+                || (codePoint >= 0x3400 && codePoint <= 0x4DBF) // CJK extension A
+                || (codePoint >= 0x4E00 && codePoint <= 0x9FFF) // CJK unified ideographs
+                || (codePoint >= 0xA000 && codePoint <= 0xA4CF) // Yi
+                || (codePoint >= 0xAC00 && codePoint <= 0xD7A3) // Hangul syllables
+                || (codePoint >= 0xF900 && codePoint <= 0xFAFF) // CJK compatibility ideographs
+                || (codePoint >= 0xFE30 && codePoint <= 0xFE4F) // CJK compatibility forms
+                || (codePoint >= 0xFF00 && codePoint <= 0xFF60) // Fullwidth forms
+                || (codePoint >= 0xFFE0 && codePoint <= 0xFFE6) // Fullwidth signs
+                || (codePoint >= 0x1F300 && codePoint <= 0x1F64F) // Pictographs and emoticons
+                || (codePoint >= 0x1F900 && codePoint <= 0x1F9FF) // Supplemental pictographs
+                || (codePoint >= 0x20000 && codePoint <= 0x3FFFD)) ? 2 : 1; // CJK extensions B onwards
+    }
+
+}
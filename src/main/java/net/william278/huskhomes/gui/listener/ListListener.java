@@ -19,21 +19,25 @@
 
 package net.william278.huskhomes.gui.listener;
 
+import net.william278.huskhomes.api.HuskHomesAPI;
 import net.william278.huskhomes.event.HomeListEvent;
 import net.william278.huskhomes.event.WarpListEvent;
 import net.william278.huskhomes.gui.HuskHomesGui;
+import net.william278.huskhomes.gui.config.ConfigSnapshot;
 import net.william278.huskhomes.gui.menu.ListMenu;
+import net.william278.huskhomes.gui.menu.ListModel;
 import net.william278.huskhomes.position.Home;
+import net.william278.huskhomes.position.SavedPosition;
+import net.william278.huskhomes.position.Warp;
 import net.william278.huskhomes.user.OnlineUser;
-import org.bukkit.Material;
-import org.bukkit.entity.Player;
+import net.william278.huskhomes.user.User;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
-import org.bukkit.event.inventory.InventoryClickEvent;
-import org.bukkit.event.inventory.InventoryType;
-import org.bukkit.inventory.ItemStack;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.List;
+import java.util.function.Supplier;
+
 public class ListListener implements Listener {
     private final HuskHomesGui plugin;
 
@@ -49,13 +53,14 @@ public class ListListener implements Listener {
         }
 
         event.setCancelled(true);
-        final ListMenu<Home> menu;
+        final ConfigSnapshot config = plugin.getConfigSnapshot();
+        final List<Home> homes = List.copyOf(event.getHomes());
         if (event.getIsPublicHomeList()) {
-            menu = ListMenu.publicHomes(plugin, event.getHomes());
+            showAsync(onlineUser, () -> plugin.getSharedListModels().publicHomes(config, homes));
         } else {
-            menu = ListMenu.homes(plugin, event.getHomes(), event.getHomes().stream().findFirst().map(Home::getOwner).orElse(onlineUser));
+            final User owner = homes.stream().findFirst().map(Home::getOwner).orElse(onlineUser);
+            showAsync(onlineUser, () -> ListModel.homes(config, homes, owner));
         }
-        menu.show(onlineUser);
     }
 
     // When the warp list is viewed
@@ -66,7 +71,21 @@ public class ListListener implements Listener {
         }
 
         event.setCancelled(true);
-        ListMenu.warps(plugin, event.getWarps()).show(onlineUser);
+        final ConfigSnapshot config = plugin.getConfigSnapshot();
+        final List<Warp> warps = List.copyOf(event.getWarps());
+        showAsync(onlineUser, () -> plugin.getSharedListModels().warps(config, warps));
+    }
+
+    // Build the menu model off the main thread, then create and show the menu on it
+    private <T extends SavedPosition> void showAsync(@NotNull OnlineUser user, @NotNull Supplier<ListModel<T>> model) {
+        plugin.runAsync(() -> {
+            final ListModel<T> built = model.get();
+            plugin.runSync(() -> {
+                if (HuskHomesAPI.getInstance().getPlayer(user).isOnline()) {
+                    ListMenu.create(plugin, built).show(user);
+                }
+            });
+        });
     }
 }
 
@@ -0,0 +1,73 @@
+/*
+ * This file is part of HuskHomesGUI, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.gui.listener;
+
+import net.william278.huskhomes.gui.HuskHomesGui;
+import net.william278.huskhomes.gui.menu.MenuManager;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+import org.bukkit.event.inventory.InventoryCloseEvent;
+import org.bukkit.event.inventory.InventoryType;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.jetbrains.annotations.NotNull;
+
+public class MenuListener implements Listener {
+    private final HuskHomesGui plugin;
+
+    public MenuListener(@NotNull HuskHomesGui plugin) {
+        this.plugin = plugin;
+    }
+
+    // When a player closes an inventory, destroy their menus unless they moved to another menu or an anvil prompt
+    @EventHandler
+    public void onInventoryClose(@NotNull InventoryCloseEvent event) {
+        if (!(event.getPlayer() instanceof Player player)) {
+            return;
+        }
+        final MenuManager menus = plugin.getMenuManager();
+        if (!menus.hasMenus(player.getUniqueId())) {
+            return;
+        }
+
+        // Menus are closed before the next one opens, so check what the player is looking at on the next tick
+        plugin.runSync(() -> {
+            if (player.isOnline() && (menus.isViewingMenu(player)
+                                      || player.getOpenInventory().getTopInventory().getType() == InventoryType.ANVIL)) {
+                return;
+            }
+            menus.destroyMenus(player.getUniqueId());
+        });
+    }
+
+    // When a player leaves, destroy their menus
+    @EventHandler
+    public void onPlayerQuit(@NotNull PlayerQuitEvent event) {
+        plugin.getMenuManager().destroyMenus(event.getPlayer().getUniqueId());
+        plugin.getClickGuard().forget(event.getPlayer().getUniqueId());
+    }
+
+    // When a player changes world, close and destroy their menus, as distances and icons may no longer apply
+    @EventHandler
+    public void onPlayerChangeWorld(@NotNull PlayerChangedWorldEvent event) {
+        plugin.getMenuManager().destroyMenus(event.getPlayer().getUniqueId());
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * This file is part of HuskHomesGUI, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.gui.menu;
+
+import net.william278.huskhomes.gui.network.InvalidationBus;
+import net.william278.huskhomes.gui.network.PositionChange;
+import net.william278.huskhomes.position.Home;
+import net.william278.huskhomes.position.SavedPosition;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Publishes edits made through the menus to the other servers on an {@link InvalidationBus}, and drops the cached
+ * menu state for positions edited on other servers
+ * <p>
+ * Only the shared list that lists a changed position is invalidated, and open list menus only forget their editor
+ * text for it. Versions are only compared between changes from the same server, as clocks on different servers may
+ * be skewed: a change is ignored if a newer or equal one from the same origin was already handled for that position.
+ * This is only used from the main thread.
+ */
+public class CacheInvalidator {
+
+    private static final int MAX_TRACKED = 1024;
+
+    private final SharedListModels sharedListModels;
+    private final MenuManager menuManager;
+    private final InvalidationBus bus;
+    private final UUID origin = UUID.randomUUID();
+    private final Map<Source, Long> versions = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Source, Long> eldest) {
+            return size() > MAX_TRACKED;
+        }
+    };
+    private long lastVersion;
+
+    public CacheInvalidator(@NotNull SharedListModels sharedListModels, @NotNull MenuManager menuManager,
+                            @NotNull InvalidationBus bus) {
+        this.sharedListModels = sharedListModels;
+        this.menuManager = menuManager;
+        this.bus = bus;
+        bus.subscribe(this::handle);
+    }
+
+    /**
+     * Tell the other servers that a position has been edited
+     *
+     * @param position The edited position
+     */
+    void publish(@NotNull SavedPosition position) {
+        // Versions follow the clock where they can, but only ever increase
+        lastVersion = Math.max(System.currentTimeMillis(), lastVersion + 1);
+        bus.publish(new PositionChange(origin, position.getUuid(),
+                position instanceof Home ? PositionChange.Type.HOME : PositionChange.Type.WARP, lastVersion));
+    }
+
+    // Drop cached state for a position edited on another server
+    private void handle(@NotNull PositionChange change) {
+        if (change.origin().equals(origin)) {
+            return;
+        }
+        final Source source = new Source(change.origin(), change.position());
+        final Long handled = versions.get(source);
+        if (handled != null && handled >= change.version()) {
+            return;
+        }
+        versions.put(source, change.version());
+
+        sharedListModels.invalidate(change.position(), change.type());
+        menuManager.positionChanged(change.position());
+    }
+
+    /**
+     * Disconnect from the bus
+     */
+    public void close() {
+        bus.close();
+    }
+
+    // A position as changed by one server, whose versions can be compared with each other
+    private record Source(@NotNull UUID origin, @NotNull UUID position) {
+    }
+
+}
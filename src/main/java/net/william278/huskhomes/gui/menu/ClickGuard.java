@@ -0,0 +1,113 @@
+/*
+ * This file is part of HuskHomesGUI, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.gui.menu;
+
+import net.william278.huskhomes.gui.HuskHomesGui;
+import net.william278.huskhomes.gui.config.Settings;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+
+/**
+ * Per-player filter for menu button clicks, and a coalescing queue for menu slot redraws
+ * <p>
+ * A click is dropped if it repeats the player's last clicked slot within the debounce time, or if the player has
+ * already made the maximum number of clicks in the current second. Slot redraws requested during a tick are merged, and
+ * each slot is re-rendered once on the next tick. This is only used from the main thread.
+ */
+public class ClickGuard {
+
+    private static final long RATE_WINDOW_NANOS = 1_000_000_000L;
+
+    private final HuskHomesGui plugin;
+    private final Map<UUID, ClickState> clicks = new HashMap<>();
+    private final Map<Menu, BitSet> pendingRedraws = new LinkedHashMap<>();
+
+    public ClickGuard(@NotNull HuskHomesGui plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Record a click, and check if it should be handled
+     *
+     * @param player The UUID of the player who clicked
+     * @param slot   The clicked slot
+     * @return {@code true} if the click should be handled; {@code false} if it should be dropped
+     */
+    public boolean allow(@NotNull UUID player, int slot) {
+        final Settings settings = plugin.getSettings();
+        final long now = System.nanoTime();
+        final ClickState state = clicks.computeIfAbsent(player, uuid -> new ClickState());
+
+        if (now - state.windowStart >= RATE_WINDOW_NANOS) {
+            state.windowStart = now;
+            state.windowClicks = 0;
+        }
+        if (++state.windowClicks > settings.getMaxClicksPerSecond()) {
+            return false;
+        }
+
+        final boolean repeated = slot == state.lastSlot
+                                 && now - state.lastClick < settings.getClickDebounceMillis() * 1_000_000L;
+        state.lastSlot = slot;
+        state.lastClick = now;
+        return !repeated;
+    }
+
+    /**
+     * Forget a player's click history, when they leave
+     *
+     * @param player The player's UUID
+     */
+    public void forget(@NotNull UUID player) {
+        clicks.remove(player);
+    }
+
+    /**
+     * Request slots of a menu be re-rendered on the next tick. Requests made before then are merged.
+     *
+     * @param menu  The menu to redraw
+     * @param slots The inventory slots to re-render
+     */
+    void requestRedraw(@NotNull Menu menu, int... slots) {
+        if (pendingRedraws.isEmpty()) {
+            plugin.runSync(this::redrawPending);
+        }
+        final BitSet pending = pendingRedraws.computeIfAbsent(menu, m -> new BitSet());
+        for (int slot : slots) {
+            pending.set(slot);
+        }
+    }
+
+    private void redrawPending() {
+        final Map<Menu, BitSet> redraws = new LinkedHashMap<>(pendingRedraws);
+        pendingRedraws.clear();
+        redraws.forEach(Menu::redrawSlots);
+    }
+
+    // The last click, and the clicks in the current rate window, of a player
+    private static final class ClickState {
+        private int lastSlot = -1;
+        private long lastClick;
+        private long windowStart;
+        private int windowClicks;
+    }
+
+}
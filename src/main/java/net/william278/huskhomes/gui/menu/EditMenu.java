@@ -23,6 +23,7 @@ import de.themoep.inventorygui.InventoryGui;
 import de.themoep.inventorygui.StaticGuiElement;
 import net.wesjd.anvilgui.AnvilGUI;
 import net.william278.huskhomes.gui.HuskHomesGui;
+import net.william278.huskhomes.gui.metrics.Metrics;
 import net.william278.huskhomes.position.Home;
 import net.william278.huskhomes.position.SavedPosition;
 import net.william278.huskhomes.position.Warp;
@@ -40,10 +41,9 @@ import org.jetbrains.annotations.NotNull;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
 
-import static net.william278.huskhomes.gui.config.Locales.textWrap;
-
 /**
  * A menu for editing a saved position
  */
@@ -53,42 +53,46 @@ public class EditMenu<T extends SavedPosition> extends Menu {
     private final Type type;
     private final ListMenu<T> parentMenu;
     private final int pageNumber;
+    private EditorModel model;
 
     @NotNull
     private static String[] getEditMenuLayout() {
         return new String[]{"       ub", "  ic  r  ", "         ",};
     }
 
-    private EditMenu(@NotNull HuskHomesGui plugin, @NotNull T position, @NotNull ListMenu<T> parentMenu, int pageNumber) {
-        super(plugin, plugin.getLocales().getLocale(position instanceof Home ? "home_editor_title" : "warp_editor_title", position.getName()), getEditMenuLayout());
+    private EditMenu(@NotNull HuskHomesGui plugin, @NotNull T position, @NotNull ListMenu<T> parentMenu,
+                     @NotNull EditorModel model, int pageNumber) {
+        super(plugin, parentMenu.config, model.getTitle(), getEditMenuLayout());
         this.type = position instanceof Home ? Type.HOME : Type.WARP;
         this.position = position;
         this.parentMenu = parentMenu;
+        this.model = model;
         this.pageNumber = pageNumber;
     }
 
     public static EditMenu<Home> home(@NotNull HuskHomesGui plugin, @NotNull Home home, @NotNull ListMenu<Home> parentMenu, int pageNumber) {
-        return new EditMenu<>(plugin, home, parentMenu, pageNumber);
+        return new EditMenu<>(plugin, home, parentMenu, parentMenu.getEditorModel(home), pageNumber);
     }
 
     public static EditMenu<Warp> warp(@NotNull HuskHomesGui plugin, @NotNull Warp warp, @NotNull ListMenu<Warp> parentMenu, int pageNumber) {
-        return new EditMenu<>(plugin, warp, parentMenu, pageNumber);
+        return new EditMenu<>(plugin, warp, parentMenu, parentMenu.getEditorModel(warp), pageNumber);
     }
 
     @Override
     protected Consumer<InventoryGui> buildMenu() {
         return (menu) -> {
-            final ItemStack positionIcon = new ItemStack(getPositionMaterial(position).orElse(plugin.getSettings().getDefaultIcon()));
+            final long start = Metrics.start();
+            final ItemStack positionIcon = new ItemStack(getPositionMaterial(position).orElse(config.icons().getDefaultIcon()));
             menu.setCloseAction(i -> false);
 
             // Filler background icons
             menu.addElement(new StaticGuiElement('a', new ItemStack(switch (type) {
-                case HOME, PUBLIC_HOME -> plugin.getSettings().getHomeEditorFillerIcon();
-                case WARP -> plugin.getSettings().getWarpEditorFillerIcon();
+                case HOME, PUBLIC_HOME -> config.icons().getHomeEditorFillerIcon();
+                case WARP -> config.icons().getWarpEditorFillerIcon();
             }), " "));
 
             // Return to the parent list menu
-            menu.addElement(new StaticGuiElement('b', new ItemStack(plugin.getSettings().getEditorBackButtonIcon()), (click) -> {
+            menu.addElement(new StaticGuiElement('b', new ItemStack(config.icons().getEditorBackButtonIcon()), guarded((click) -> {
                 if (click.getWhoClicked() instanceof Player player) {
                     final OnlineUser user = api.adaptUser(player);
                     this.close(user);
@@ -97,25 +101,26 @@ public class EditMenu<T extends SavedPosition> extends Menu {
                     this.destroy();
                 }
                 return true;
-            }, plugin.getLocales().getLocale("back_button")));
+            }), model.getBackText()));
 
-            menu.addElement(new StaticGuiElement('c', new ItemStack(plugin.getSettings().getComingSOONButton()), (click) -> {
+            menu.addElement(new StaticGuiElement('c', new ItemStack(config.icons().getComingSOONButton()), (click) -> {
                 // NO Code
                 return true;
-            }, plugin.getLocales().getLocale("coming_soon_name")));
+            }, model.getComingSoonText()));
 
             // INFO
-            menu.addElement(new StaticGuiElement('u', new ItemStack(plugin.getSettings().getEditorEditLocationButtonIcon()), (click) -> {
+            menu.addElement(new StaticGuiElement('u', new ItemStack(config.icons().getEditorEditLocationButtonIcon()), (click) -> {
 
                 return true;
-            }, plugin.getLocales().getLocale("edit_information_button"), plugin.getLocales().getLocale("edit_information_default_message-1", position instanceof Home ? plugin.getLocales().getLocale("type_home") : plugin.getLocales().getLocale("type_warp"), position.getName()), plugin.getLocales().getLocale("edit_information_default_message-2", position instanceof Home ? plugin.getLocales().getLocale("type_home") : plugin.getLocales().getLocale("type_warp"), position.getName()), plugin.getLocales().getLocale("edit_information_default_message-3", position instanceof Home ? plugin.getLocales().getLocale("type_home") : plugin.getLocales().getLocale("type_warp"), position.getName()), plugin.getLocales().getLocale("edit_information_default_message-4", position instanceof Home ? plugin.getLocales().getLocale("type_home") : plugin.getLocales().getLocale("type_warp"), position.getName())));
+            }, model.getInformationText()));
 
             // Editing name (Via anvil) - NOT USE
-            menu.addElement(new StaticGuiElement('n', new ItemStack(plugin.getSettings().getEditorEditNameButtonIcon()), (click) -> {
+            menu.addElement(new StaticGuiElement('n', new ItemStack(config.icons().getEditorEditNameButtonIcon()), guarded((click) -> {
                 if (click.getWhoClicked() instanceof Player player) {
                     this.close(api.adaptUser(player));
+                    final AtomicBoolean submitted = new AtomicBoolean(false);
                     AnvilGUI.Builder guiBuilder = new AnvilGUI.Builder().plugin(plugin).title(
-                            plugin.getLocales().getLocale("edit_name_title", position.getName()));
+                            config.locales().getLocale("edit_name_title", position.getName()));
                     guiBuilder.text(position.getName());
 
                     guiBuilder.onClick((slot, state) -> {
@@ -125,6 +130,7 @@ public class EditMenu<T extends SavedPosition> extends Menu {
 
                         String result = state.getText();
 
+                        final long editStart = Metrics.start();
                         try {
                             if (position instanceof Home home) {
                                 api.renameHome(home, result);
@@ -133,70 +139,90 @@ public class EditMenu<T extends SavedPosition> extends Menu {
                             }
                         } catch (ValidationException e) {
                             return List.of();
+                        } finally {
+                            Metrics.record(Metrics.Operation.HUSKHOMES_EDIT, editStart);
                         }
                         position.getMeta().setName(result);
+                        parentMenu.refresh(position);
+                        final EditorModel renamed = model.withName(position);
+                        parentMenu.setEditorModel(position, renamed);
 
                         // Refresh menu title
+                        submitted.set(true);
                         this.close(api.adaptUser(player));
                         this.destroy();
-                        new EditMenu<>(plugin, position, parentMenu, pageNumber).show(api.adaptUser(player));
+                        new EditMenu<>(plugin, position, parentMenu, renamed, pageNumber).show(api.adaptUser(player));
 
                         return List.of();
                     });
 
-                    guiBuilder.onClose(playerInAnvil -> this.show(api.adaptUser(player)));
+                    // Return to this menu if cancelled; a rename replaces it with a new menu
+                    guiBuilder.onClose(playerInAnvil -> {
+                        if (!submitted.get()) {
+                            this.show(api.adaptUser(player));
+                        }
+                    });
 
                     guiBuilder.open(player);
                 }
                 return true;
-            }, plugin.getLocales().getLocale("edit_name_button")));
+            }), model.getEditNameText()));
 
             // Editing description (Via anvil) - NOT USE
-            menu.addElement(new StaticGuiElement('d', new ItemStack(plugin.getSettings().getEditorEditDescriptionButtonIcon()), (click) -> {
+            menu.addElement(new StaticGuiElement('d', new ItemStack(config.icons().getEditorEditDescriptionButtonIcon()), guarded((click) -> {
                 if (click.getWhoClicked() instanceof Player player) {
                     this.close(api.adaptUser(player));
 
                 }
                 return true;
-            }, plugin.getLocales().getLocale("edit_description_button"),
-
-                    // description
-                    (!position.getMeta().getDescription().isBlank() ? plugin.getLocales().getLocale("edit_description_default_message", textWrap(plugin, position.getMeta().getDescription())) : plugin.getLocales().getLocale("edit_description_default_message_blank"))));
+            }), model.getDescriptionText()));
 
             // Editing home privacy - NOT USE
             if (position instanceof Home home) {
-                menu.addElement(new StaticGuiElement('p', new ItemStack(plugin.getSettings().getEditorEditPrivacyButtonIcon()), (click) -> {
+                menu.addElement(new StaticGuiElement('p', new ItemStack(config.icons().getEditorEditPrivacyButtonIcon()), guarded((click) -> {
                     if (click.getWhoClicked() instanceof Player player) {
+                        final long editStart = Metrics.start();
                         try {
                             api.setHomePrivacy(home, !home.isPublic());
-                            // Update the status display on the menu
-                            home.setPublic(!home.isPublic());
-                            this.show(api.adaptUser(player));
                         } catch (ValidationException e) {
                             return true;
+                        } finally {
+                            Metrics.record(Metrics.Operation.HUSKHOMES_EDIT, editStart);
                         }
+                        // Update the status display on the menu
+                        home.setPublic(!home.isPublic());
+                        parentMenu.refresh(position);
+                        model = model.withPrivacy(home);
+                        parentMenu.setEditorModel(position, model);
+                        ((StaticGuiElement) click.getElement()).setText(model.getPrivacyText());
+                        requestRedraw(click.getSlot());
                     }
                     return true;
-                }, plugin.getLocales().getLocale("edit_privacy_button"), plugin.getLocales().getLocale("edit_privacy_message", (home.isPublic() ? plugin.getLocales().getLocale("edit_privacy_message_public") : plugin.getLocales().getLocale("edit_privacy_message_private")))));
+                }), model.getPrivacyText()));
             }
 
             // Deleting
-            menu.addElement(new StaticGuiElement('r', new ItemStack(plugin.getSettings().getEditorDeleteButtonIcon()), (click) -> {
+            menu.addElement(new StaticGuiElement('r', new ItemStack(config.icons().getEditorDeleteButtonIcon()), guarded((click) -> {
                 switch (click.getType()) {
                     case RIGHT, DROP -> { // DROP: geyser player throw item
                         if (click.getWhoClicked() instanceof Player player) {
                             this.close(api.adaptUser(player));
+                            final long editStart = Metrics.start();
                             try {
                                 if (position instanceof Home home) {
                                     api.deleteHome(home);
-                                    home.getMeta().setName(plugin.getLocales().getLocale("item_deleted_name", home.getName())); // update listMenu
+                                    home.getMeta().setName(config.locales().getLocale("item_deleted_name", home.getName())); // update listMenu
                                 } else if (position instanceof Warp warp) {
                                     api.deleteWarp(warp);
-                                    warp.getMeta().setName(plugin.getLocales().getLocale("item_deleted_name", warp.getName())); // update listMenu
+                                    warp.getMeta().setName(config.locales().getLocale("item_deleted_name", warp.getName())); // update listMenu
                                 }
                             } catch (ValidationException e) {
                                 return true;
+                            } finally {
+                                Metrics.record(Metrics.Operation.HUSKHOMES_EDIT, editStart);
                             }
+                            parentMenu.refresh(position);
+                            parentMenu.setEditorModel(position, model.withName(position));
 
                             // Return to the parent list menu
                             final OnlineUser user = api.adaptUser(player);
@@ -208,20 +234,12 @@ public class EditMenu<T extends SavedPosition> extends Menu {
                     }
                 }
                 return true;
-            }, plugin.getLocales().getLocale("delete_button"), plugin.getLocales().getLocale("delete_button_describe")));
+            }), model.getDeleteText()));
 
             // Controls display
-            menu.addElement(new StaticGuiElement('i', new ItemStack(Material.KNOWLEDGE_BOOK),
-                    // Name
-                    plugin.getLocales().getLocale("item_info_name", position.getName()),
-                    // World name
-                    plugin.getLocales().getLocale("item_info_world", position.getWorld().getName()),
-                    // Server name
-                    plugin.getLocales().getLocale("item_info_server", position.getServer()),
-                    // Coordinates
-                    plugin.getLocales().getLocale("item_info_coordinates", Integer.toString((int) Math.floor(position.getX())), Integer.toString((int) Math.floor(position.getY())), Integer.toString((int) Math.floor(position.getZ()))),
-                    // Owner name (Only for homes)
-                    position instanceof Home home ? plugin.getLocales().getLocale("home_owner_name", home.getOwner().getUsername()) : ""));
+            menu.addElement(new StaticGuiElement('i', new ItemStack(Material.KNOWLEDGE_BOOK), model.getInfoText()));
+
+            Metrics.record(Metrics.Operation.EDIT_MENU_BUILD, start);
         };
     }
 
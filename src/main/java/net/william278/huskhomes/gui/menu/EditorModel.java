@@ -0,0 +1,226 @@
+/*
+ * This file is part of HuskHomesGUI, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.gui.menu;
+
+import net.william278.huskhomes.gui.config.ConfigSnapshot;
+import net.william278.huskhomes.gui.config.Locales;
+import net.william278.huskhomes.position.Home;
+import net.william278.huskhomes.position.SavedPosition;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The formatted text of an {@link EditMenu} for one position
+ * <p>
+ * Every locale of the editor is formatted once, when the model is created. A change to the name or privacy of the
+ * position makes a new model that only reformats the text depending on it, so the editor can be rebuilt by copying the
+ * text out of the model. Descriptions can't be edited from the menu, so a description changed elsewhere is picked up
+ * when the model is next created.
+ */
+public final class EditorModel {
+
+    private final ConfigSnapshot config;
+    private final String title;
+    private final String typeName;
+    private final String[] informationText;
+    private final String[] descriptionText;
+    private final String[] privacyText;
+    private final String[] infoText;
+    private final String[] deleteText;
+    private final String backText;
+    private final String comingSoonText;
+    private final String editNameText;
+
+    private EditorModel(@NotNull ConfigSnapshot config, @NotNull String title, @NotNull String typeName,
+                        @NotNull String[] informationText, @NotNull String[] descriptionText,
+                        @Nullable String[] privacyText, @NotNull String[] infoText, @NotNull String[] deleteText,
+                        @NotNull String backText, @NotNull String comingSoonText, @NotNull String editNameText) {
+        this.config = config;
+        this.title = title;
+        this.typeName = typeName;
+        this.informationText = informationText;
+        this.descriptionText = descriptionText;
+        this.privacyText = privacyText;
+        this.infoText = infoText;
+        this.deleteText = deleteText;
+        this.backText = backText;
+        this.comingSoonText = comingSoonText;
+        this.editNameText = editNameText;
+    }
+
+    /**
+     * Format the editor text for a position
+     *
+     * @param config   The config to format the text with
+     * @param position The position being edited
+     * @return The editor model
+     */
+    @NotNull
+    public static EditorModel of(@NotNull ConfigSnapshot config, @NotNull SavedPosition position) {
+        final Locales locales = config.locales();
+        final String typeName = locales.getLocale(position instanceof Home ? "type_home" : "type_warp");
+        return new EditorModel(
+                config,
+                formatTitle(config, position),
+                typeName,
+                formatInformation(config, typeName, position),
+                formatDescription(config, position),
+                position instanceof Home home ? formatPrivacy(config, home) : null,
+                new String[]{
+                        // Name
+                        locales.getLocale("item_info_name", position.getName()),
+                        // World name
+                        locales.getLocale("item_info_world", position.getWorld().getName()),
+                        // Server name
+                        locales.getLocale("item_info_server", position.getServer()),
+                        // Coordinates
+                        locales.getLocale("item_info_coordinates",
+                                Integer.toString((int) Math.floor(position.getX())),
+                                Integer.toString((int) Math.floor(position.getY())),
+                                Integer.toString((int) Math.floor(position.getZ()))),
+                        // Owner name (Only for homes)
+                        position instanceof Home home ? locales.getLocale("home_owner_name", home.getOwner().getUsername()) : ""
+                },
+                new String[]{locales.getLocale("delete_button"), locales.getLocale("delete_button_describe")},
+                locales.getLocale("back_button"),
+                locales.getLocale("coming_soon_name"),
+                locales.getLocale("edit_name_button")
+        );
+    }
+
+    /**
+     * Get a copy of this model with the text depending on the position's name reformatted
+     *
+     * @param position The renamed position
+     * @return The updated model
+     */
+    @NotNull
+    public EditorModel withName(@NotNull SavedPosition position) {
+        final String[] info = infoText.clone();
+        info[0] = config.locales().getLocale("item_info_name", position.getName());
+        return new EditorModel(config, formatTitle(config, position), typeName,
+                formatInformation(config, typeName, position), descriptionText, privacyText, info, deleteText,
+                backText, comingSoonText, editNameText);
+    }
+
+    /**
+     * Get a copy of this model with the home's privacy status reformatted
+     *
+     * @param home The home with the changed privacy
+     * @return The updated model
+     */
+    @NotNull
+    public EditorModel withPrivacy(@NotNull Home home) {
+        return new EditorModel(config, title, typeName, informationText, descriptionText, formatPrivacy(config, home),
+                infoText, deleteText, backText, comingSoonText, editNameText);
+    }
+
+    @NotNull
+    private static String formatTitle(@NotNull ConfigSnapshot config, @NotNull SavedPosition position) {
+        return config.locales().getLocale(position instanceof Home ? "home_editor_title" : "warp_editor_title",
+                position.getName());
+    }
+
+    @NotNull
+    private static String[] formatInformation(@NotNull ConfigSnapshot config, @NotNull String typeName,
+                                              @NotNull SavedPosition position) {
+        final Locales locales = config.locales();
+        final String name = position.getName();
+        return new String[]{
+                locales.getLocale("edit_information_button"),
+                locales.getLocale("edit_information_default_message-1", typeName, name),
+                locales.getLocale("edit_information_default_message-2", typeName, name),
+                locales.getLocale("edit_information_default_message-3", typeName, name),
+                locales.getLocale("edit_information_default_message-4", typeName, name)
+        };
+    }
+
+    @NotNull
+    private static String[] formatDescription(@NotNull ConfigSnapshot config, @NotNull SavedPosition position) {
+        final Locales locales = config.locales();
+        final String description = position.getMeta().getDescription();
+        return new String[]{
+                locales.getLocale("edit_description_button"),
+                !description.isBlank()
+                        ? locales.getLocale("edit_description_default_message", config.textWrapper().wrap(description))
+                        : locales.getLocale("edit_description_default_message_blank")
+        };
+    }
+
+    @NotNull
+    private static String[] formatPrivacy(@NotNull ConfigSnapshot config, @NotNull Home home) {
+        final Locales locales = config.locales();
+        return new String[]{
+                locales.getLocale("edit_privacy_button"),
+                locales.getLocale("edit_privacy_message", (home.isPublic()
+                        ? locales.getLocale("edit_privacy_message_public")
+                        : locales.getLocale("edit_privacy_message_private")))
+        };
+    }
+
+    @NotNull
+    public String getTitle() {
+        return title;
+    }
+
+    @NotNull
+    public String[] getInformationText() {
+        return informationText.clone();
+    }
+
+    @NotNull
+    public String[] getDescriptionText() {
+        return descriptionText.clone();
+    }
+
+    @NotNull
+    public String[] getPrivacyText() {
+        if (privacyText == null) {
+            throw new IllegalStateException("Only homes have a privacy status");
+        }
+        return privacyText.clone();
+    }
+
+    @NotNull
+    public String[] getInfoText() {
+        return infoText.clone();
+    }
+
+    @NotNull
+    public String[] getDeleteText() {
+        return deleteText.clone();
+    }
+
+    @NotNull
+    public String getBackText() {
+        return backText;
+    }
+
+    @NotNull
+    public String getComingSoonText() {
+        return comingSoonText;
+    }
+
+    @NotNull
+    public String getEditNameText() {
+        return editNameText;
+    }
+
+}
@@ -0,0 +1,63 @@
+/*
+ * This file is part of HuskHomesGUI, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.gui.menu;
+
+import org.bukkit.Material;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interning table from icon tag values (namespaced material keys) to {@link Material}s
+ * <p>
+ * Tags that don't match a material are cached as empty too, so a bad tag is only looked up once. The table is cleared
+ * when it fills up, which only happens if positions carry a lot of distinct invalid tags.
+ */
+final class IconTagCache {
+
+    private static final int MAX_SIZE = 2048;
+    private static final Map<String, Optional<Material>> MATERIALS = new ConcurrentHashMap<>();
+
+    private IconTagCache() {
+    }
+
+    /**
+     * Resolve an icon tag to a material
+     *
+     * @param tag The icon tag value
+     * @return The material, if the tag matches one
+     */
+    @NotNull
+    static Optional<Material> resolve(@NotNull String tag) {
+        final Optional<Material> cached = MATERIALS.get(tag);
+        if (cached != null) {
+            return cached;
+        }
+        if (MATERIALS.size() >= MAX_SIZE) {
+            MATERIALS.clear();
+        }
+        final Optional<Material> material = Optional.ofNullable(Material.matchMaterial(tag));
+        MATERIALS.put(tag, material);
+        return material;
+    }
+
+}
@@ -0,0 +1,175 @@
+/*
+ * This file is part of HuskHomesGUI, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.gui.menu;
+
+import net.william278.huskhomes.position.Home;
+import net.william278.huskhomes.position.SavedPosition;
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.SkullMeta;
+import org.bukkit.profile.PlayerProfile;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * LRU cache of the {@link ItemStack}s shown for listed positions, with their name and lore already applied
+ * <p>
+ * Stacks are keyed by the position, the fields of its meta that are rendered, the generation of the locales they were
+ * rendered with and the type of list they are shown in. Editing a position or reloading the locales therefore never
+ * serves a stale stack; the old one just ages out. Cached stacks are shared between menus and players, so they must
+ * not be modified; elements clone them before drawing.
+ */
+public class ItemStackCache {
+
+    private static final int MAX_SIZE = 4096;
+
+    private final Map<Key, ItemStack> items = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, ItemStack> eldest) {
+            return size() > MAX_SIZE;
+        }
+    };
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Get a cached stack, or build and cache it
+     *
+     * @param key     The cache key
+     * @param builder Builds the stack on a miss
+     * @return The cached stack, which must not be modified
+     */
+    @NotNull
+    synchronized ItemStack get(@NotNull Key key, @NotNull Supplier<ItemStack> builder) {
+        final ItemStack cached = items.get(key);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        final ItemStack item = builder.get();
+        items.put(key, item);
+        return item;
+    }
+
+    /**
+     * Build a stack with a name and lore, as {@code InventoryGui} would apply element text to it
+     *
+     * @param icon The material of the stack
+     * @param text The item name and lore
+     * @return The stack
+     */
+    @NotNull
+    static ItemStack createItem(@NotNull Material icon, @NotNull ItemText text) {
+        final ItemStack item = new ItemStack(icon);
+        text.applyTo(item);
+        return item;
+    }
+
+    /**
+     * Make a player head stack show a skin
+     *
+     * @param item  The player head stack
+     * @param owner The UUID of the player the skin belongs to
+     * @param skin  The URL of the skin texture
+     */
+    static void applySkin(@NotNull ItemStack item, @NotNull UUID owner, @NotNull String skin) {
+        if (!(item.getItemMeta() instanceof SkullMeta meta)) {
+            return;
+        }
+        final PlayerProfile profile = Bukkit.createPlayerProfile(owner);
+        try {
+            profile.getTextures().setSkin(new URL(skin));
+        } catch (MalformedURLException e) {
+            return;
+        }
+        meta.setOwnerProfile(profile);
+        item.setItemMeta(meta);
+    }
+
+    /**
+     * Get the number of lookups served from the cache
+     *
+     * @return The hit count
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Get the number of lookups that had to build a stack
+     *
+     * @return The miss count
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Get the number of cached stacks
+     *
+     * @return The cache size
+     */
+    public synchronized int size() {
+        return items.size();
+    }
+
+    /**
+     * Drop all cached stacks
+     */
+    public synchronized void clear() {
+        items.clear();
+    }
+
+    /**
+     * Key of a cached position stack
+     *
+     * @param position    The position id
+     * @param type        The type of list the position is shown in
+     * @param generation  The generation of the locales the stack is rendered with
+     * @param name        The position name
+     * @param description The position description
+     * @param isPublic    Whether the position is a public home
+     * @param owner       The username of the home owner, which public home lore shows; {@code null} for warps
+     * @param icon        The icon material
+     * @param skin        The URL of the skin shown on a player head icon, if any
+     */
+    record Key(@NotNull UUID position, @NotNull Menu.Type type, long generation, @NotNull String name,
+               @NotNull String description, boolean isPublic, @Nullable String owner, @NotNull Material icon,
+               @Nullable String skin) {
+
+        @NotNull
+        static Key of(@NotNull SavedPosition position, @NotNull Menu.Type type, long generation,
+                      @NotNull Material icon, @Nullable String skin) {
+            return new Key(position.getUuid(), type, generation, position.getMeta().getName(),
+                    position.getMeta().getDescription(), position instanceof Home home && home.isPublic(),
+                    position instanceof Home home ? home.getOwner().getUsername() : null, icon, skin);
+        }
+
+    }
+
+}
@@ -0,0 +1,151 @@
+/*
+ * This file is part of HuskHomesGUI, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.gui.menu;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.format.Style;
+import net.kyori.adventure.text.format.TextDecoration;
+import net.kyori.adventure.text.serializer.bungeecord.BungeeComponentSerializer;
+import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The name and lore of an item, as Adventure components
+ * <p>
+ * The text is split into lines once, when it is created. It is applied to item meta as components where the server
+ * supports it, so it isn't serialized to a legacy string and parsed back again; otherwise it falls back to legacy
+ * strings. Like {@code InventoryGui} element text, line breaks inside a component start a new line, empty lines are
+ * dropped, and the first line is the item name.
+ */
+public final class ItemText {
+
+    private static final boolean COMPONENT_META = supportsComponentMeta();
+    private static final LegacyComponentSerializer LEGACY = LegacyComponentSerializer.legacySection();
+
+    private final List<Component> lines;
+
+    private ItemText(@NotNull List<Component> lines) {
+        this.lines = lines;
+    }
+
+    /**
+     * Split formatted text into item lines
+     *
+     * @param text The item name, followed by its lore
+     * @return The item text
+     */
+    @NotNull
+    public static ItemText of(@NotNull Component... text) {
+        final LineSplitter splitter = new LineSplitter();
+        for (Component component : text) {
+            splitter.split(component, Style.empty());
+            splitter.endLine();
+        }
+        return new ItemText(List.copyOf(splitter.lines));
+    }
+
+    /**
+     * Set the name and lore of an item stack to this text
+     *
+     * @param item The item stack
+     */
+    public void applyTo(@NotNull ItemStack item) {
+        final ItemMeta meta = item.getItemMeta();
+        if (meta == null || lines.isEmpty()) {
+            return;
+        }
+
+        final List<Component> lore = lines.subList(1, lines.size());
+        if (COMPONENT_META) {
+            final BungeeComponentSerializer serializer = BungeeComponentSerializer.get();
+            meta.setDisplayNameComponent(serializer.serialize(lines.get(0)));
+            meta.setLoreComponents(lore.isEmpty() ? null : lore.stream().map(serializer::serialize).toList());
+        } else {
+            meta.setDisplayName(LEGACY.serialize(lines.get(0)));
+            meta.setLore(lore.isEmpty() ? null : lore.stream().map(LEGACY::serialize).toList());
+        }
+        item.setItemMeta(meta);
+    }
+
+    // Whether this server has the BungeeCord chat API and component setters on item meta
+    private static boolean supportsComponentMeta() {
+        try {
+            Class.forName("net.md_5.bungee.api.chat.BaseComponent");
+            ItemMeta.class.getMethod("setLoreComponents", List.class);
+            return true;
+        } catch (ClassNotFoundException | NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    // Flattens component trees into lines of styled components, splitting text on line breaks
+    private static final class LineSplitter {
+
+        private final List<Component> lines = new ArrayList<>();
+        private final List<Component> line = new ArrayList<>();
+        private boolean blank = true;
+
+        private void split(@NotNull Component component, @NotNull Style parent) {
+            final Style style = component.style().merge(parent, Style.Merge.Strategy.IF_ABSENT_ON_TARGET);
+            if (component instanceof TextComponent text) {
+                final String content = text.content();
+                int from = 0;
+                int lineBreak;
+                while ((lineBreak = content.indexOf('\n', from)) != -1) {
+                    append(content.substring(from, lineBreak), style);
+                    endLine();
+                    from = lineBreak + 1;
+                }
+                append(content.substring(from), style);
+            } else {
+                line.add(component.children(List.of()).style(style));
+                blank = false;
+            }
+            for (Component child : component.children()) {
+                split(child, style);
+            }
+        }
+
+        private void append(@NotNull String text, @NotNull Style style) {
+            if (!text.isEmpty()) {
+                line.add(Component.text(text, style));
+                blank = false;
+            }
+        }
+
+        // Item text isn't italic unless a locale makes it so, matching legacy names with colour codes
+        private void endLine() {
+            if (!blank) {
+                lines.add(Component.empty().children(List.copyOf(line))
+                        .decorationIfAbsent(TextDecoration.ITALIC, TextDecoration.State.FALSE));
+            }
+            line.clear();
+            blank = true;
+        }
+
+    }
+
+}
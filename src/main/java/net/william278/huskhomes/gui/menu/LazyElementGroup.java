@@ -0,0 +1,131 @@
+/*
+ * This file is part of HuskHomesGUI, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.gui.menu;
+
+import de.themoep.inventorygui.GuiElement;
+import de.themoep.inventorygui.GuiElementGroup;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * A {@link GuiElementGroup} that creates its elements from a backing list only when the page they are on is viewed
+ * <p>
+ * Created elements are kept in a window of two pages (the page being viewed and the one next to it), so the number of
+ * live elements is bounded by the page size rather than by the size of the list.
+ * <p>
+ * This relies on how InventoryGui 1.6.1-SNAPSHOT uses a {@link GuiElementGroup}, so re-check it when bumping that
+ * dependency: {@link #getElement(int, int)} is asked for each slot of each drawn page and maps it to a list index with
+ * {@code getSlotIndex(slot, page)}; the page count that {@link de.themoep.inventorygui.GuiPageElement} navigates is
+ * derived from {@link #size()} and the group's slot count, while {@link #getElements()} is only walked for the
+ * elements already created; and {@link #clearElements()} is called when the group is cleared, which must drop the
+ * created window too.
+ *
+ * @param <T> The type of item backing each element
+ */
+class LazyElementGroup<T> extends GuiElementGroup {
+
+    private static final int WINDOW_PAGES = 2;
+
+    private List<T> items;
+    private final Function<T, GuiElement> factory;
+    private final Map<Integer, GuiElement> window = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, GuiElement> eldest) {
+            return size() > Math.max(1, getSlots().length) * WINDOW_PAGES;
+        }
+    };
+
+    LazyElementGroup(char slotChar, @NotNull List<T> items, @NotNull Function<T, GuiElement> factory) {
+        super(slotChar);
+        this.items = items;
+        this.factory = factory;
+    }
+
+    @Override
+    @Nullable
+    public GuiElement getElement(int slot, int pageNumber) {
+        final int index = getSlotIndex(slot, getSlots().length > 0 ? pageNumber : 0);
+        if (index < 0 || index >= items.size()) {
+            return null;
+        }
+        return window.computeIfAbsent(index, this::createElement);
+    }
+
+    // Create the element for the item at the given index
+    @NotNull
+    private GuiElement createElement(int index) {
+        final GuiElement element = factory.apply(items.get(index));
+        element.setGui(getGui());
+        element.setSlots(getSlots());
+        return element;
+    }
+
+    /**
+     * Replace the backing list, dropping all created elements
+     *
+     * @param items The new items to create elements from
+     */
+    void setItems(@NotNull List<T> items) {
+        this.items = items;
+        window.clear();
+    }
+
+    /**
+     * Drop the created element for an item, so it is created afresh the next time its page is drawn
+     *
+     * @param item The item whose element should be recreated
+     */
+    void invalidate(@NotNull T item) {
+        invalidateIf(created -> created == item);
+    }
+
+    /**
+     * Drop the created elements for the items matching a filter
+     *
+     * @param filter The filter matching items whose elements should be recreated
+     */
+    void invalidateIf(@NotNull Predicate<T> filter) {
+        window.keySet().removeIf(index -> filter.test(items.get(index)));
+    }
+
+    @Override
+    public void clearElements() {
+        window.clear();
+    }
+
+    @Override
+    @NotNull
+    public List<GuiElement> getElements() {
+        return new ArrayList<>(window.values());
+    }
+
+    @Override
+    public int size() {
+        return items.size();
+    }
+
+}
@@ -21,23 +21,29 @@ package net.william278.huskhomes.gui.menu;
 
 import de.themoep.inventorygui.*;
 import net.william278.huskhomes.gui.HuskHomesGui;
+import net.william278.huskhomes.gui.config.ConfigSnapshot;
+import net.william278.huskhomes.gui.metrics.Metrics;
 import net.william278.huskhomes.position.Home;
 import net.william278.huskhomes.position.SavedPosition;
 import net.william278.huskhomes.position.Warp;
-import net.william278.huskhomes.teleport.TeleportationException;
 import net.william278.huskhomes.user.OnlineUser;
 import net.william278.huskhomes.user.User;
+import net.wesjd.anvilgui.AnvilGUI;
 import org.bukkit.Material;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
 
-import static net.william278.huskhomes.gui.config.Locales.textWrap;
-
 /**
  * A menu for displaying a list of saved positions
  */
@@ -46,193 +52,321 @@ public class ListMenu<T extends SavedPosition> extends Menu {
     private static final String EDIT_HOME_PERMISSION = "huskhomes.command.edithome";
     private static final String EDIT_HOME_OTHER_PERMISSION = "huskhomes.command.edithome.other";
     private static final String EDIT_WARP_PERMISSION = "huskhomes.command.editwarp";
-    private final List<T> positions;
+    private ListModel<T> model;
+    private final LazyElementGroup<T> positionGroup;
     private final Type type;
     private final int pageNumber = 1;
+    private final int[] matches;
+    private final Map<UUID, EditorModel> editorModels = new HashMap<>();
+    private SortMode sortMode = SortMode.DEFAULT;
+    private StaticGuiElement sortButton;
 
     @NotNull
     public static ListMenu<Home> homes(@NotNull HuskHomesGui plugin, @NotNull List<Home> homes, @NotNull User owner) {
-        return new ListMenu<>(plugin, homes, Type.HOME,
-                plugin.getLocales().getLocale("homes_menu_title", owner.getUsername()));
+        return create(plugin, ListModel.homes(plugin.getConfigSnapshot(), homes, owner));
     }
 
     @NotNull
     public static ListMenu<Home> publicHomes(@NotNull HuskHomesGui plugin, @NotNull List<Home> homes) {
-        return new ListMenu<>(plugin, homes, Type.PUBLIC_HOME,
-                plugin.getLocales().getLocale("public_homes_menu_title"));
+        return create(plugin, ListModel.publicHomes(plugin.getConfigSnapshot(), homes));
     }
 
     @NotNull
     public static ListMenu<Warp> warps(@NotNull HuskHomesGui plugin, @NotNull List<Warp> warps) {
-        return new ListMenu<>(plugin, warps, Type.WARP,
-                plugin.getLocales().getLocale("warps_menu_title"));
+        return create(plugin, ListModel.warps(plugin.getConfigSnapshot(), warps));
+    }
+
+    /**
+     * Create a menu from a prebuilt model. This must be called on the main thread.
+     *
+     * @param plugin The plugin instance
+     * @param model  The model to display
+     * @param <T>    The type of position listed
+     * @return The menu
+     */
+    @NotNull
+    public static <T extends SavedPosition> ListMenu<T> create(@NotNull HuskHomesGui plugin, @NotNull ListModel<T> model) {
+        return new ListMenu<>(plugin, model, model.getTitle(), null);
     }
 
-    private ListMenu(@NotNull HuskHomesGui plugin, @NotNull List<T> positions, @NotNull ListMenu.Type type, @NotNull String title) {
-        super(plugin, title, getMenuLayout(plugin));
-        this.positions = positions;
-        this.type = type;
+    private ListMenu(@NotNull HuskHomesGui plugin, @NotNull ListModel<T> model,
+                     @NotNull String title, @Nullable int[] matches) {
+        super(plugin, model.getConfig(), title, getMenuLayout(model.getConfig()));
+        this.model = model;
+        this.type = model.getType();
+        this.matches = matches;
+        this.positionGroup = new LazyElementGroup<>('p', model.getPositions(sortMode, null, matches),
+                this::getPositionButton);
     }
 
     @NotNull
-    private static String[] getMenuLayout(@NotNull HuskHomesGui plugin) {
+    private static String[] getMenuLayout(@NotNull ConfigSnapshot config) {
         return Arrays.copyOfRange(new String[]{
                         "ppppppppp",
                         "ppppppppp",
                         "ppppppppp",
                         "ppppppppp",
                         "ppppppppp",
-                        " l  i  n "},
-                6 - plugin.getSettings().getMenuSize(), 6);
+                        " l ois n "},
+                6 - config.settings().getMenuSize(), 6);
     }
 
     @Override
     protected Consumer<InventoryGui> buildMenu() {
         return (menu) -> {
+            final long start = Metrics.start();
+
             // Add filler items
-            menu.setFiller(new ItemStack(type.getFillerMaterial(plugin.getSettings()), 1));
+            menu.setFiller(new ItemStack(type.getFillerMaterial(config.icons()), 1));
 
             // Add pagination handling
-            menu.addElement(getPositionGroup(plugin, positions));
+            menu.addElement(positionGroup);
             menu.addElement(new GuiPageElement('b',
-                    new ItemStack(plugin.getSettings().getPaginateFirstPage()),
+                    new ItemStack(config.icons().getPaginateFirstPage()),
                     GuiPageElement.PageAction.FIRST,
-                    plugin.getLocales().getLocale("pagination_first_page")));
+                    config.locales().getLocale("pagination_first_page")));
             menu.addElement(new GuiPageElement('l',
-                    new ItemStack(plugin.getSettings().getPaginatePreviousPage()),
+                    new ItemStack(config.icons().getPaginatePreviousPage()),
                     GuiPageElement.PageAction.PREVIOUS,
-                    plugin.getLocales().getLocale("pagination_previous_page")));
+                    config.locales().getLocale("pagination_previous_page")));
             menu.addElement(new GuiPageElement('n',
-                    new ItemStack(plugin.getSettings().getPaginateNextPage()),
+                    new ItemStack(config.icons().getPaginateNextPage()),
                     GuiPageElement.PageAction.NEXT,
-                    plugin.getLocales().getLocale("pagination_next_page")));
+                    config.locales().getLocale("pagination_next_page")));
             menu.addElement(new GuiPageElement('e',
-                    new ItemStack(plugin.getSettings().getPaginateLastPage()),
+                    new ItemStack(config.icons().getPaginateLastPage()),
                     GuiPageElement.PageAction.LAST,
-                    plugin.getLocales().getLocale("pagination_last_page")));
+                    config.locales().getLocale("pagination_last_page")));
             menu.setPageNumber(pageNumber);
 
             // Add controls information
-            if (plugin.getSettings().doShowMenuControls()) {
+            if (config.settings().doShowMenuControls()) {
                 menu.addElement(new StaticGuiElement('i',
-                        new ItemStack(plugin.getSettings().getControlsIcon()),
-                        plugin.getLocales().getLocale("menu_controls_title"),
-                        plugin.getLocales().getLocale("menu_controls_details")));
+                        new ItemStack(config.icons().getControlsIcon()),
+                        config.locales().getLocale("menu_controls_title"),
+                        config.locales().getLocale("menu_controls_details")));
             }
+
+            // Add sort button
+            this.sortButton = new StaticGuiElement('o',
+                    new ItemStack(config.icons().getSortButtonIcon()),
+                    guarded((click) -> {
+                        if (click.getWhoClicked() instanceof Player player) {
+                            final OnlineUser user = api.adaptUser(player);
+                            setSortMode(sortMode.next(type), user);
+                            setPageNumber(user, 1);
+                        }
+                        return true;
+                    }),
+                    getSortButtonText());
+            menu.addElement(sortButton);
+
+            // Add search button
+            menu.addElement(new StaticGuiElement('s',
+                    new ItemStack(config.icons().getSearchButtonIcon()),
+                    guarded((click) -> {
+                        if (click.getWhoClicked() instanceof Player player) {
+                            openSearch(player);
+                        }
+                        return true;
+                    }),
+                    config.locales().getLocale("search_button"),
+                    config.locales().getLocale("search_button_describe")));
+
+            Metrics.record(Metrics.Operation.LIST_MENU_BUILD, start);
         };
     }
 
-    // Get the GUI group of position select buttons
+    // Prompt for a search query with an anvil, then show the matching positions
+    private void openSearch(@NotNull Player player) {
+        final OnlineUser user = api.adaptUser(player);
+        final AtomicBoolean submitted = new AtomicBoolean(false);
+        this.close(user);
+
+        final AnvilGUI.Builder guiBuilder = new AnvilGUI.Builder().plugin(plugin)
+                .title(config.locales().getLocale("search_title"))
+                .text(" ");
+        guiBuilder.onClick((slot, state) -> {
+            if (slot != AnvilGUI.Slot.OUTPUT) {
+                return Collections.emptyList();
+            }
+
+            submitted.set(true);
+            final String query = state.getText().trim();
+            return List.of(AnvilGUI.ResponseAction.close(), AnvilGUI.ResponseAction.run(() -> {
+                final ListMenu<T> results = query.isEmpty()
+                        ? create(plugin, model)
+                        : new ListMenu<>(plugin, model,
+                        config.locales().getLocale("search_results_title", query), model.find(query));
+                results.setSortMode(sortMode, user);
+                results.show(user);
+                this.destroy();
+            }));
+        });
+        guiBuilder.onClose(state -> {
+            if (!submitted.get()) {
+                this.show(user);
+            }
+        });
+        guiBuilder.open(player);
+    }
+
+    // Re-order the listed positions, using the viewer's position for sorting by distance
+    private void setSortMode(@NotNull SortMode mode, @NotNull OnlineUser viewer) {
+        this.sortMode = mode;
+        positionGroup.setItems(model.getPositions(mode, viewer.getPosition(), matches));
+        if (sortButton != null) {
+            sortButton.setText(getSortButtonText());
+        }
+    }
+
     @NotNull
-    private GuiElementGroup getPositionGroup(@NotNull HuskHomesGui plugin, @NotNull List<T> positions) {
-        final GuiElementGroup group = new GuiElementGroup('p');
-        positions.forEach(position -> group.addElement(getPositionButton(plugin, position)));
-        return group;
+    private String[] getSortButtonText() {
+        return new String[]{
+                config.locales().getLocale("sort_button"),
+                config.locales().getLocale("sort_button_describe",
+                        config.locales().getRawLocale(sortMode.getLocaleKey()).orElse(sortMode.name()))
+        };
+    }
+
+    /**
+     * Re-render the list entry for a position after it has been edited
+     * <p>
+     * This menu switches to a refreshed copy of its model, so other menus showing the same shared model are left
+     * untouched. Only the button for that position is recreated; the rest of the menu is reused the next time it is
+     * shown. Shared list models the position may be in are invalidated, so later viewers get a fresh build, and the
+     * change is published to the other servers on the network.
+     *
+     * @param position The edited position
+     */
+    public void refresh(@NotNull T position) {
+        model = ListModel.refreshed(model, position);
+        positionGroup.invalidate(position);
+        plugin.getSharedListModels().invalidate(position);
+        plugin.getCacheInvalidator().publish(position);
+    }
+
+    @Override
+    protected void onPositionChanged(@NotNull UUID position) {
+        editorModels.remove(position);
+    }
+
+    @Override
+    protected void onSkinResolved(@NotNull UUID player) {
+        if (type != Type.PUBLIC_HOME) {
+            return;
+        }
+        positionGroup.invalidateIf(position -> ((Home) position).getOwner().getUuid().equals(player));
+        requestRedraw(positionGroup.getSlots());
+    }
+
+    /**
+     * Get the editor text for a listed position, formatting it the first time the position is edited
+     *
+     * @param position The position to edit
+     * @return The editor model for the position
+     */
+    @NotNull
+    EditorModel getEditorModel(@NotNull T position) {
+        return editorModels.computeIfAbsent(position.getUuid(), uuid -> EditorModel.of(config, position));
+    }
+
+    /**
+     * Replace the editor text for a listed position, after it has been edited
+     *
+     * @param position The edited position
+     * @param model    The updated editor model
+     */
+    void setEditorModel(@NotNull T position, @NotNull EditorModel model) {
+        editorModels.put(position.getUuid(), model);
     }
 
     // Get a position select button for a SavedPosition
     @SuppressWarnings("unchecked")
     @NotNull
-    private DynamicGuiElement getPositionButton(@NotNull HuskHomesGui plugin, @NotNull SavedPosition position) {
-        return new DynamicGuiElement('e', (viewer) -> new StaticGuiElement('e',
-                new ItemStack(getPositionMaterial(position).orElse(plugin.getSettings().getDefaultIcon())),
-                (click) -> {
-                    if (click.getWhoClicked() instanceof Player player) {
-                        final OnlineUser user = api.adaptUser(player);
-                        switch (click.getType()) {
-                            case LEFT -> {
-                                final ItemStack newItem = player.getItemOnCursor();
-                                if (newItem.getType() == Material.AIR) {
-                                    // teleport
-                                    this.close(user);
-                                    this.destroy();
-
-                                    try {
-                                        api.teleportBuilder(user)
-                                                .target(position)
-                                                .toTimedTeleport()
-                                                .execute();
-                                    } catch (TeleportationException ignored) {
-                                    }
-                                    return true;
-                                }
+    private StaticGuiElement getPositionButton(@NotNull T position) {
+        final ListModel.Entry entry = model.getEntry(position);
+        final User headOwner = entry.headOwner();
+        final String skin = headOwner != null
+                ? plugin.getSkullCache().getSkin(headOwner.getUuid(), headOwner.getUsername()) : null;
+        final Material icon = skin != null ? Material.PLAYER_HEAD : entry.icon();
+        final ItemStack item = plugin.getItemStackCache().get(
+                ItemStackCache.Key.of(position, type, config.locales().getGeneration(), icon, skin),
+                () -> {
+                    final ItemStack created = ItemStackCache.createItem(icon, entry.text());
+                    if (headOwner != null && skin != null) {
+                        ItemStackCache.applySkin(created, headOwner.getUuid(), skin);
+                    }
+                    return created;
+                });
+        return new StaticGuiElement('e', item, guarded((click) -> {
+            if (click.getWhoClicked() instanceof Player player) {
+                final OnlineUser user = api.adaptUser(player);
+                switch (click.getType()) {
+                    case LEFT -> {
+                        final ItemStack newItem = player.getItemOnCursor();
+                        if (newItem.getType() == Material.AIR) {
+                            // teleport
+                            this.close(user);
+                            this.destroy();
 
-                                // Update the icon with the item on the cursor
-                                switch (type) {
-                                    case HOME, PUBLIC_HOME -> {
-                                        if (player.getUniqueId().equals(((Home) position).getOwner().getUuid())) {
-                                            if (!player.hasPermission(EDIT_HOME_PERMISSION)) {
-                                                return true;
-                                            }
-                                        } else {
-                                            if (!player.hasPermission(EDIT_HOME_OTHER_PERMISSION)) {
-                                                return true;
-                                            }
-                                        }
+                            plugin.getTeleportDispatcher().teleport(user, player, position);
+                            return true;
+                        }
+
+                        // Update the icon with the item on the cursor
+                        switch (type) {
+                            case HOME, PUBLIC_HOME -> {
+                                if (player.getUniqueId().equals(((Home) position).getOwner().getUuid())) {
+                                    if (!player.hasPermission(EDIT_HOME_PERMISSION)) {
+                                        return true;
                                     }
-                                    case WARP -> {
-                                        if (!player.hasPermission(EDIT_WARP_PERMISSION)) {
-                                            return true;
-                                        }
+                                } else {
+                                    if (!player.hasPermission(EDIT_HOME_OTHER_PERMISSION)) {
+                                        return true;
                                     }
                                 }
-                                setPositionMaterial(position, newItem.getType());
-                                click.getGui().draw();
                             }
+                            case WARP -> {
+                                if (!player.hasPermission(EDIT_WARP_PERMISSION)) {
+                                    return true;
+                                }
+                            }
+                        }
+                        setPositionMaterial(position, newItem.getType());
+                        refresh(position);
+                        requestRedraw(click.getSlot());
+                    }
 
-                            case RIGHT, DROP -> { // DROP: geyser player throw item
-                                switch (type) {
-                                    case WARP -> {
-                                        if (!player.hasPermission(EDIT_WARP_PERMISSION)) {
-                                            return true;
-                                        }
-                                    }
-                                    case PUBLIC_HOME, HOME -> {
-                                        if (position instanceof Home home) {
-                                            if (!player.hasPermission(EDIT_HOME_PERMISSION)) {
-                                                return true;
-                                            }
-                                            if (!player.getUniqueId().equals(home.getOwner().getUuid())
-                                                && !player.hasPermission(EDIT_HOME_OTHER_PERMISSION)) {
-                                                return true;
-                                            }
-                                        }
-                                    }
+                    case RIGHT, DROP -> { // DROP: geyser player throw item
+                        switch (type) {
+                            case WARP -> {
+                                if (!player.hasPermission(EDIT_WARP_PERMISSION)) {
+                                    return true;
                                 }
+                            }
+                            case PUBLIC_HOME, HOME -> {
                                 if (position instanceof Home home) {
-                                    EditMenu.home(plugin, home, (ListMenu<Home>) this, getPageNumber(user)).show(user);
-                                } else if (position instanceof Warp warp) {
-                                    EditMenu.warp(plugin, warp, (ListMenu<Warp>) this, getPageNumber(user)).show(user);
+                                    if (!player.hasPermission(EDIT_HOME_PERMISSION)) {
+                                        return true;
+                                    }
+                                    if (!player.getUniqueId().equals(home.getOwner().getUuid())
+                                        && !player.hasPermission(EDIT_HOME_OTHER_PERMISSION)) {
+                                        return true;
+                                    }
                                 }
                             }
                         }
+                        if (position instanceof Home home) {
+                            EditMenu.home(plugin, home, (ListMenu<Home>) this, getPageNumber(user)).show(user);
+                        } else if (position instanceof Warp warp) {
+                            EditMenu.warp(plugin, warp, (ListMenu<Warp>) this, getPageNumber(user)).show(user);
+                        }
                     }
-                    return true;
-                },
-
-                // home name
-                // Only use "item_name_public" for public home in home list
-                ((type == Type.HOME && ((Home) position).isPublic()) ?
-                        plugin.getLocales().getLocale("item_name_public", position.getName())
-                        : plugin.getLocales().getLocale("item_name", position.getName())),
-
-                // description
-                (!position.getMeta().getDescription().isBlank() ?
-                        plugin.getLocales().getLocale("item_description", textWrap(plugin, position.getMeta().getDescription()))
-                        : plugin.getLocales().getLocale("item_description_blank")),
-
-                // player name
-                (position instanceof Home home ?
-                        type == Type.PUBLIC_HOME ?
-                                plugin.getLocales().getLocale("home_owner_name", home.getOwner().getUsername())
-                                : ""
-                        : ""),
-
-                // item_controls
-                (plugin.getSettings().camelCase() ?
-                        plugin.getLocales().getLocale("item_controls")
-                        : "")
-        ));
+                }
+            }
+            return true;
+        }));
     }
 
 }
\ No newline at end of file
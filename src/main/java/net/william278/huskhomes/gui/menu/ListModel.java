@@ -0,0 +1,286 @@
+/*
+ * This file is part of HuskHomesGUI, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.gui.menu;
+
+import net.kyori.adventure.text.Component;
+import net.william278.huskhomes.gui.config.ConfigSnapshot;
+import net.william278.huskhomes.gui.metrics.Metrics;
+import net.william278.huskhomes.position.Home;
+import net.william278.huskhomes.position.Position;
+import net.william278.huskhomes.position.SavedPosition;
+import net.william278.huskhomes.position.Warp;
+import net.william278.huskhomes.user.User;
+import org.bukkit.Material;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * The rendered contents of a {@link ListMenu}: its title, and the icon, name and lore of each listed position
+ * <p>
+ * Building a model only formats locales, resolves icons and indexes the positions for search and sorting from a
+ * snapshot of the positions, so it can be done off the main thread. Once it has been handed to a menu, it is only
+ * searched from the main thread.
+ * <p>
+ * Shared models are shown to many viewers at once, so a model is never changed after it is built: editing a position
+ * creates a {@link #refreshed(ListModel, SavedPosition) refreshed} copy for the editing menu, and menus still showing
+ * the old model are left untouched.
+ *
+ * @param <T> The type of position listed
+ */
+public final class ListModel<T extends SavedPosition> {
+
+    private final ConfigSnapshot config;
+    private final Menu.Type type;
+    private final String title;
+    private final List<T> positions;
+    private final Map<UUID, Entry> entries;
+    private SearchIndex<T> searchIndex;
+    private SortIndex sortIndex;
+
+    private ListModel(@NotNull ConfigSnapshot config, @NotNull Menu.Type type, @NotNull String title,
+                      @NotNull List<T> positions) {
+        final long start = Metrics.start();
+        this.config = config;
+        this.type = type;
+        this.title = title;
+        this.positions = List.copyOf(positions);
+        this.entries = new HashMap<>(this.positions.size() * 2);
+        this.positions.forEach(position -> entries.put(position.getUuid(), render(position)));
+        this.searchIndex = new SearchIndex<>(this.positions);
+        this.sortIndex = new SortIndex(this.positions);
+        Metrics.record(Metrics.Operation.LIST_MODEL_BUILD, start);
+    }
+
+    // Copy a model, replacing the listed position and entry for an edited position
+    private ListModel(@NotNull ListModel<T> model, @NotNull T edited) {
+        this.config = model.config;
+        this.type = model.type;
+        this.title = model.title;
+        this.positions = model.positions.stream()
+                .map(position -> position.getUuid().equals(edited.getUuid()) ? edited : position)
+                .toList();
+        this.entries = new HashMap<>(model.entries);
+        this.entries.put(edited.getUuid(), render(edited));
+    }
+
+    @NotNull
+    public static ListModel<Home> homes(@NotNull ConfigSnapshot config, @NotNull List<Home> homes, @NotNull User owner) {
+        return new ListModel<>(config, Menu.Type.HOME, config.locales().getLocale("homes_menu_title", owner.getUsername()), homes);
+    }
+
+    @NotNull
+    public static ListModel<Home> publicHomes(@NotNull ConfigSnapshot config, @NotNull List<Home> homes) {
+        return new ListModel<>(config, Menu.Type.PUBLIC_HOME, config.locales().getLocale("public_homes_menu_title"), homes);
+    }
+
+    @NotNull
+    public static ListModel<Warp> warps(@NotNull ConfigSnapshot config, @NotNull List<Warp> warps) {
+        return new ListModel<>(config, Menu.Type.WARP, config.locales().getLocale("warps_menu_title"), warps);
+    }
+
+    // Render the icon, name and lore of a position
+    @NotNull
+    private Entry render(@NotNull T position) {
+        // Public homes without an icon of their own can show their owner's head instead
+        final Optional<Material> icon = Menu.getPositionMaterial(position);
+        final User headOwner = type == Menu.Type.PUBLIC_HOME && icon.isEmpty() && config.settings().doShowOwnerHeads()
+                ? ((Home) position).getOwner() : null;
+        return new Entry(icon.orElse(headOwner != null
+                ? config.icons().getOwnerHeadPlaceholderIcon()
+                : config.icons().getDefaultIcon()), headOwner, ItemText.of(
+                // home name
+                // Only use "item_name_public" for public home in home list
+                ((type == Menu.Type.HOME && ((Home) position).isPublic()) ?
+                        config.locales().getComponent("item_name_public", position.getName())
+                        : config.locales().getComponent("item_name", position.getName())),
+
+                // description
+                (!position.getMeta().getDescription().isBlank() ?
+                        config.locales().getComponent("item_description", config.textWrapper().wrap(position.getMeta().getDescription()))
+                        : config.locales().getComponent("item_description_blank")),
+
+                // player name
+                (position instanceof Home home ?
+                        type == Menu.Type.PUBLIC_HOME ?
+                                config.locales().getComponent("home_owner_name", home.getOwner().getUsername())
+                                : Component.empty()
+                        : Component.empty()),
+
+                // item_controls
+                (config.settings().camelCase() ?
+                        config.locales().getComponent("item_controls")
+                        : Component.empty())
+        ));
+    }
+
+    /**
+     * Create a copy of a model with the entry for a position re-rendered, after its name, description, privacy or icon
+     * has changed
+     * <p>
+     * The given model is left as it is. The search and sort indexes of the copy are built on first use.
+     *
+     * @param model    The model to copy
+     * @param position The edited position
+     * @param <T>      The type of position listed
+     * @return The refreshed model
+     */
+    @NotNull
+    public static <T extends SavedPosition> ListModel<T> refreshed(@NotNull ListModel<T> model, @NotNull T position) {
+        return new ListModel<>(model, position);
+    }
+
+    /**
+     * Search the listed positions by name, owner and description
+     * <p>
+     * The search index is built with the model, or on the first search of a refreshed copy
+     *
+     * @param query The search query
+     * @return The matching positions, in list order; all positions if the query is blank
+     */
+    @NotNull
+    public List<T> search(@NotNull String query) {
+        return getSearchIndex().search(query);
+    }
+
+    /**
+     * Find the indexes of the listed positions matching a search query
+     *
+     * @param query The search query
+     * @return The indexes of the matches in ascending order, or {@code null} if the query is blank
+     */
+    @Nullable
+    int[] find(@NotNull String query) {
+        return getSearchIndex().find(query);
+    }
+
+    @NotNull
+    private SearchIndex<T> getSearchIndex() {
+        if (searchIndex == null) {
+            searchIndex = new SearchIndex<>(positions);
+        }
+        return searchIndex;
+    }
+
+    /**
+     * Get a view of the listed positions in a sort order, optionally limited to the matches of a search
+     * <p>
+     * Fixed orders are computed once per model and cached, so switching back to one doesn't sort again
+     *
+     * @param mode    The sort mode
+     * @param viewer  The position of the viewer, for sorting by distance
+     * @param matches The indexes of the positions to list, from {@link #find(String)}; or {@code null} to list all
+     * @return The positions to list, in order
+     */
+    @NotNull
+    List<T> getPositions(@NotNull SortMode mode, @Nullable Position viewer, @Nullable int[] matches) {
+        if (mode == SortMode.DEFAULT && matches == null) {
+            return positions;
+        }
+        if (sortIndex == null) {
+            sortIndex = new SortIndex(positions);
+        }
+
+        int[] order = mode == SortMode.DISTANCE && viewer != null
+                ? sortIndex.getOrderByDistance(viewer)
+                : sortIndex.getOrder(mode);
+        if (matches != null) {
+            final boolean[] matched = new boolean[positions.size()];
+            for (int index : matches) {
+                matched[index] = true;
+            }
+            final int[] filtered = new int[matches.length];
+            int size = 0;
+            for (int index : order) {
+                if (matched[index]) {
+                    filtered[size++] = index;
+                }
+            }
+            order = filtered;
+        }
+        return new OrderedView<>(positions, order);
+    }
+
+    /**
+     * Get the rendered entry for a position
+     *
+     * @param position The listed position
+     * @return The entry for the position
+     */
+    @NotNull
+    public Entry getEntry(@NotNull T position) {
+        return entries.computeIfAbsent(position.getUuid(), uuid -> render(position));
+    }
+
+    @NotNull
+    public ConfigSnapshot getConfig() {
+        return config;
+    }
+
+    @NotNull
+    Menu.Type getType() {
+        return type;
+    }
+
+    @NotNull
+    public String getTitle() {
+        return title;
+    }
+
+    @NotNull
+    public List<T> getPositions() {
+        return positions;
+    }
+
+    /**
+     * A rendered list entry
+     *
+     * @param icon      The icon material, or the placeholder to show until the head owner's skin is known
+     * @param headOwner The player whose head should be shown as the icon, if any
+     * @param text      The item name and lore
+     */
+    public record Entry(@NotNull Material icon, @Nullable User headOwner, @NotNull ItemText text) {
+    }
+
+    // A read-only view of a list through an array of indexes
+    private static final class OrderedView<T> extends AbstractList<T> implements RandomAccess {
+
+        private final List<T> list;
+        private final int[] order;
+
+        private OrderedView(@NotNull List<T> list, @NotNull int[] order) {
+            this.list = list;
+            this.order = order;
+        }
+
+        @Override
+        public T get(int index) {
+            return list.get(order[index]);
+        }
+
+        @Override
+        public int size() {
+            return order.length;
+        }
+
+    }
+
+}
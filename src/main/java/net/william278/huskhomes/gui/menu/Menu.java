@@ -19,39 +19,70 @@
 
 package net.william278.huskhomes.gui.menu;
 
+import de.themoep.inventorygui.GuiElement;
 import de.themoep.inventorygui.InventoryGui;
 import net.william278.huskhomes.api.HuskHomesAPI;
 import net.william278.huskhomes.gui.HuskHomesGui;
+import net.william278.huskhomes.gui.config.ConfigSnapshot;
 import net.william278.huskhomes.gui.config.Settings;
+import net.william278.huskhomes.gui.metrics.Metrics;
 import net.william278.huskhomes.position.Home;
 import net.william278.huskhomes.position.SavedPosition;
 import net.william278.huskhomes.position.Warp;
 import net.william278.huskhomes.user.OnlineUser;
 import org.bukkit.Material;
+import org.bukkit.entity.HumanEntity;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.Inventory;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.Map;
+import java.util.BitSet;
 import java.util.Optional;
+import java.util.UUID;
 import java.util.function.Consumer;
 
 public abstract class Menu {
-    private static final String TAG_KEY = "huskhomesgui:icon";
+    static final String TAG_KEY = "huskhomesgui:icon";
 
     protected final HuskHomesGui plugin;
+    protected final ConfigSnapshot config;
     protected final HuskHomesAPI api;
     private final InventoryGui gui;
+    private boolean built;
+    private boolean destroyed;
+    private UUID viewer;
 
-    protected Menu(@NotNull HuskHomesGui plugin, @NotNull String title, @NotNull String[] layout) {
+    protected Menu(@NotNull HuskHomesGui plugin, @NotNull ConfigSnapshot config,
+                   @NotNull String title, @NotNull String[] layout) {
         this.plugin = plugin;
+        this.config = config;
         this.api = HuskHomesAPI.getInstance();
         this.gui = new InventoryGui(plugin, title, layout);
     }
 
     protected abstract Consumer<InventoryGui> buildMenu();
 
+    /**
+     * Show the menu to a user, building it first if it has not been built yet
+     * <p>
+     * Re-showing a built menu reuses its elements; elements that changed should be refreshed by the subclass. Showing a
+     * destroyed menu does nothing, so it isn't tracked again; create a new menu instead.
+     *
+     * @param user The user to show the menu to
+     */
     public final void show(@NotNull OnlineUser user) {
-        buildMenu().accept(gui);
+        if (destroyed) {
+            return;
+        }
+        final long start = Metrics.start();
+        if (!built) {
+            buildMenu().accept(gui);
+            built = true;
+        }
         gui.show(api.getPlayer(user));
+        this.viewer = user.getUuid();
+        plugin.getMenuManager().track(viewer, this);
+        Metrics.record(Metrics.Operation.MENU_SHOW, start);
     }
 
     public final void setPageNumber(@NotNull OnlineUser user, int pageNumber) {
@@ -66,8 +97,85 @@ public abstract class Menu {
         gui.close(api.getPlayer(user));
     }
 
+    /**
+     * Destroy the menu, closing it and unregistering its inventory listener. A destroyed menu can't be shown again.
+     */
     public final void destroy() {
+        destroyed = true;
         gui.destroy();
+        if (viewer != null) {
+            plugin.getMenuManager().untrack(viewer, this);
+        }
+    }
+
+    /**
+     * Wrap a button action so clicks are debounced and rate limited per player by the {@link ClickGuard}
+     * <p>
+     * Dropped clicks are cancelled without running the action
+     *
+     * @param action The button action
+     * @return The guarded action
+     */
+    @NotNull
+    protected final GuiElement.Action guarded(@NotNull GuiElement.Action action) {
+        return (click) -> !plugin.getClickGuard().allow(click.getWhoClicked().getUniqueId(), click.getSlot())
+                          || action.onClick(click);
+    }
+
+    /**
+     * Re-render slots of the menu on the next tick, merged with any other slots requested before then
+     * <p>
+     * Only the given slots are re-rendered and sent to the viewer, rather than drawing the whole menu
+     *
+     * @param slots The inventory slots to re-render
+     */
+    protected final void requestRedraw(int... slots) {
+        plugin.getClickGuard().requestRedraw(this, slots);
+    }
+
+    /**
+     * Drop any state cached by this menu for a position that was edited on another server
+     *
+     * @param position The id of the edited position
+     */
+    protected void onPositionChanged(@NotNull UUID position) {
+    }
+
+    /**
+     * Re-render anything in this menu showing the head of a player whose skin has just been looked up
+     *
+     * @param player The UUID of the player
+     */
+    protected void onSkinResolved(@NotNull UUID player) {
+    }
+
+    /**
+     * Re-render slots in the viewer's open inventory, if they are still looking at this menu
+     *
+     * @param slots The inventory slots to re-render
+     */
+    final void redrawSlots(@NotNull BitSet slots) {
+        final Player player = viewer != null ? plugin.getServer().getPlayer(viewer) : null;
+        if (player == null || !isOpenFor(player)) {
+            return;
+        }
+        final Inventory inventory = player.getOpenInventory().getTopInventory();
+        for (int slot = slots.nextSetBit(0); slot >= 0 && slot < inventory.getSize(); slot = slots.nextSetBit(slot + 1)) {
+            final GuiElement element = gui.getElement(slot);
+            if (element != null) {
+                inventory.setItem(slot, element.getItem(player, slot));
+            }
+        }
+    }
+
+    /**
+     * Check if this menu is the one a player currently has open
+     *
+     * @param player The player
+     * @return {@code true} if the player is looking at this menu
+     */
+    final boolean isOpenFor(@NotNull HumanEntity player) {
+        return InventoryGui.getOpen(player) == gui;
     }
 
     /**
@@ -76,31 +184,30 @@ public abstract class Menu {
      * @param position The saved position
      * @return The material to use if found
      */
-    protected Optional<Material> getPositionMaterial(@NotNull SavedPosition position) {
-        final Map<String, String> tags = position.getMeta().getTags();
-        if (tags.containsKey(TAG_KEY)) {
-            return Optional.ofNullable(Material.matchMaterial(tags.get(TAG_KEY)));
+    protected static Optional<Material> getPositionMaterial(@NotNull SavedPosition position) {
+        final String tag = position.getMeta().getTags().get(TAG_KEY);
+        if (tag != null) {
+            return IconTagCache.resolve(tag);
         }
         return Optional.empty();
     }
 
     /**
-     * Set the material to use for a {@link SavedPosition} and update it in the database
+     * Set the material to use for a {@link SavedPosition} and queue it to be updated in the database
+     * <p>
+     * The icon tag is updated in memory immediately, so menus show the new icon straight away
      *
      * @param position The saved position
      * @param material The {@link Material} to use
      */
     protected void setPositionMaterial(@NotNull SavedPosition position, @NotNull Material material) {
-        final Map<String, String> tags = position.getMeta().getTags();
-        tags.put(TAG_KEY, material.getKey().toString());
-
-        if (position instanceof Warp warp) {
-            api.setWarpMetaTags(warp, tags);
-        } else if (position instanceof Home home) {
-            api.setHomeMetaTags(home, tags);
-        } else {
+        if (!(position instanceof Warp || position instanceof Home)) {
             throw new IllegalArgumentException("Position must be a warp or home");
         }
+
+        position.getMeta().getTags().put(TAG_KEY, material.getKey().toString());
+        plugin.getMetaTagWriter().queue(position);
+        plugin.getSharedListModels().invalidate(position);
     }
 
     /**
@@ -111,11 +218,11 @@ public abstract class Menu {
         PUBLIC_HOME,
         WARP;
 
-        public Material getFillerMaterial(@NotNull Settings settings) {
+        public Material getFillerMaterial(@NotNull Settings.Icons icons) {
             return switch (this) {
-                case HOME -> settings.getHomesFillerItem();
-                case PUBLIC_HOME -> settings.getPublicHomesFillerItem();
-                case WARP -> settings.getWarpsFillerItem();
+                case HOME -> icons.getHomesFillerItem();
+                case PUBLIC_HOME -> icons.getPublicHomesFillerItem();
+                case WARP -> icons.getWarpsFillerItem();
             };
         }
     }
@@ -0,0 +1,116 @@
+/*
+ * This file is part of HuskHomesGUI, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.gui.menu;
+
+import org.bukkit.entity.HumanEntity;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+
+/**
+ * Tracks the menus shown to each player, so they are all destroyed once the player is done with them
+ * <p>
+ * A destroyed menu unregisters its inventory listener and drops its elements; a menu that is only closed keeps both
+ * until the plugin is disabled. Menus are tracked when shown and untracked when destroyed. This is only used from the
+ * main thread.
+ */
+public class MenuManager {
+
+    private final Map<UUID, Set<Menu>> menus = new HashMap<>();
+
+    void track(@NotNull UUID player, @NotNull Menu menu) {
+        menus.computeIfAbsent(player, uuid -> new LinkedHashSet<>()).add(menu);
+    }
+
+    void untrack(@NotNull UUID player, @NotNull Menu menu) {
+        final Set<Menu> tracked = menus.get(player);
+        if (tracked != null && tracked.remove(menu) && tracked.isEmpty()) {
+            menus.remove(player);
+        }
+    }
+
+    /**
+     * Check if a player has any menus that have not been destroyed
+     *
+     * @param player The player's UUID
+     * @return {@code true} if the player has live menus
+     */
+    public boolean hasMenus(@NotNull UUID player) {
+        return menus.containsKey(player);
+    }
+
+    /**
+     * Check if a player is currently looking at one of their menus
+     *
+     * @param player The player
+     * @return {@code true} if one of the player's menus is open
+     */
+    public boolean isViewingMenu(@NotNull HumanEntity player) {
+        final Set<Menu> tracked = menus.get(player.getUniqueId());
+        return tracked != null && tracked.stream().anyMatch(menu -> menu.isOpenFor(player));
+    }
+
+    /**
+     * Destroy all of a player's menus, closing any that are open
+     *
+     * @param player The player's UUID
+     */
+    public void destroyMenus(@NotNull UUID player) {
+        final Set<Menu> tracked = menus.remove(player);
+        if (tracked != null) {
+            new ArrayList<>(tracked).forEach(Menu::destroy);
+        }
+    }
+
+    /**
+     * Let every tracked menu drop cached state for a position that was edited on another server
+     *
+     * @param position The id of the edited position
+     */
+    void positionChanged(@NotNull UUID position) {
+        menus.values().forEach(tracked -> tracked.forEach(menu -> menu.onPositionChanged(position)));
+    }
+
+    /**
+     * Let every tracked menu re-render the head of a player whose skin has just been looked up
+     *
+     * @param player The UUID of the player
+     */
+    public void skinResolved(@NotNull UUID player) {
+        menus.values().forEach(tracked -> tracked.forEach(menu -> menu.onSkinResolved(player)));
+    }
+
+    /**
+     * Destroy every tracked menu
+     */
+    public void destroyAll() {
+        new ArrayList<>(menus.keySet()).forEach(this::destroyMenus);
+    }
+
+    /**
+     * Get the number of menus that have been shown and not yet destroyed
+     *
+     * @return The number of live menus
+     */
+    public int getMenuCount() {
+        return menus.values().stream().mapToInt(Set::size).sum();
+    }
+
+}
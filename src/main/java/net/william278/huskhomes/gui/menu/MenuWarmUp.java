@@ -0,0 +1,157 @@
+/*
+ * This file is part of HuskHomesGUI, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.gui.menu;
+
+import net.william278.huskhomes.gui.config.ConfigSnapshot;
+import net.william278.huskhomes.gui.metrics.Metrics;
+import net.william278.huskhomes.position.*;
+import net.william278.huskhomes.user.User;
+import org.bukkit.Material;
+import org.bukkit.plugin.Plugin;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+import java.util.logging.Level;
+
+/**
+ * Warms up the caches and code paths behind the list and edit menus for a newly loaded config
+ * <p>
+ * Constant locales are formatted, configured icons are resolved, and list and editor models are built, sorted and
+ * searched over a synthetic set of homes and warps. Menus themselves are only ever built on the main thread, so this
+ * exercises everything they are built from instead. None of the synthetic output is cached.
+ * <p>
+ * {@link #run(ConfigSnapshot)} only touches plain data, so it is safe to run off the main thread. Item stacks and
+ * their meta belong to the main thread, so the sample items are built afterwards by {@link #buildItems(Plugin)}, a
+ * few per tick.
+ */
+public final class MenuWarmUp {
+
+    private static final int POSITIONS = 64;
+    private static final int ITEMS_PER_TICK = 8;
+    private static final User OWNER = User.of(new UUID(0L, 0L), "HuskHomesGUI");
+    private static final String[] DESCRIPTIONS = {
+            "",
+            "Warm-up",
+            "A longer description of a position, long enough that it has to be wrapped onto more than one line of lore",
+            "[Formatted] (text) with & and \\ characters\nand a line break",
+    };
+
+    private final Queue<SampleItem> items = new ArrayDeque<>();
+
+    private MenuWarmUp() {
+    }
+
+    /**
+     * Warm up the data behind the menus for a config. This is safe to call off the main thread.
+     *
+     * @param config The config to warm up
+     * @return The warm-up, whose sample items are still to be built on the main thread
+     */
+    @NotNull
+    public static MenuWarmUp run(@NotNull ConfigSnapshot config) {
+        final long start = Metrics.start();
+        final MenuWarmUp warmUp = new MenuWarmUp();
+        config.locales().warmUp();
+
+        final List<Material> icons = config.icons().getAll();
+        icons.forEach(icon -> {
+            IconTagCache.resolve(icon.getKey().toString());
+            warmUp.items.add(new SampleItem(icon,
+                    ItemText.of(config.locales().getComponent("item_name", icon.name()))));
+        });
+
+        final List<Home> homes = new ArrayList<>(POSITIONS);
+        final List<Warp> warps = new ArrayList<>(POSITIONS);
+        for (int i = 0; i < POSITIONS; i++) {
+            final Home home = Home.from(createPosition(i), createMeta("home_" + i, i, icons), OWNER);
+            home.setPublic(i % 2 == 0);
+            homes.add(home);
+            warps.add(Warp.from(createPosition(-i), createMeta("warp_" + i, i, icons)));
+        }
+        warmUp.exercise(ListModel.homes(config, homes, OWNER));
+        warmUp.exercise(ListModel.publicHomes(config, homes));
+        warmUp.exercise(ListModel.warps(config, warps));
+
+        EditorModel.of(config, homes.get(0)).withName(homes.get(0)).withPrivacy(homes.get(0));
+        EditorModel.of(config, warps.get(0)).withName(warps.get(0));
+        Metrics.record(Metrics.Operation.WARM_UP, start);
+        return warmUp;
+    }
+
+    /**
+     * Build the sample items of this warm-up on the main thread, {@value #ITEMS_PER_TICK} per tick so a single tick
+     * isn't held up. This must be called on the main thread.
+     *
+     * @param plugin The plugin to schedule the builds with
+     */
+    public void buildItems(@NotNull Plugin plugin) {
+        plugin.getServer().getScheduler().runTaskTimer(plugin, task -> {
+            try {
+                for (int i = 0; i < ITEMS_PER_TICK && !items.isEmpty(); i++) {
+                    final SampleItem item = items.remove();
+                    ItemStackCache.createItem(item.icon(), item.text());
+                }
+            } catch (RuntimeException e) {
+                plugin.getLogger().log(Level.WARNING, "Failed to warm up menu items", e);
+                items.clear();
+            }
+            if (items.isEmpty()) {
+                task.cancel();
+            }
+        }, 1L, 1L);
+    }
+
+    // Sort, search and render every entry of a list model, as opening and paging through its menu would, and queue
+    // its items to be built
+    private <T extends SavedPosition> void exercise(@NotNull ListModel<T> model) {
+        final Position viewer = model.getPositions().get(0);
+        for (SortMode mode : SortMode.values()) {
+            model.getPositions(mode, viewer, null);
+            model.getPositions(mode, viewer, model.find("1"));
+        }
+        model.find("_");
+        model.search("warm");
+        model.getPositions().forEach(position -> {
+            final ListModel.Entry entry = model.getEntry(position);
+            items.add(new SampleItem(entry.icon(), entry.text()));
+        });
+        ListModel.refreshed(model, model.getPositions().get(0)).search("warm");
+    }
+
+    @NotNull
+    private static Position createPosition(int seed) {
+        return Position.at(seed * 37.5d, 64d + (seed & 63), seed * -21.25d, 0f, 0f,
+                World.from("world", new UUID(0L, 0L)), "server");
+    }
+
+    // Positions cycle through the sample descriptions and the configured icons, with every third left untagged
+    @NotNull
+    private static PositionMeta createMeta(@NotNull String name, int seed, @NotNull List<Material> icons) {
+        final PositionMeta meta = new PositionMeta(name, DESCRIPTIONS[seed % DESCRIPTIONS.length]);
+        if (seed % 3 != 0) {
+            meta.getTags().put(Menu.TAG_KEY, icons.get(seed % icons.size()).getKey().toString());
+        }
+        return meta;
+    }
+
+    private record SampleItem(@NotNull Material icon, @NotNull ItemText text) {
+    }
+
+}
@@ -0,0 +1,115 @@
+/*
+ * This file is part of HuskHomesGUI, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.gui.menu;
+
+import net.william278.huskhomes.api.HuskHomesAPI;
+import net.william278.huskhomes.gui.HuskHomesGui;
+import net.william278.huskhomes.gui.metrics.Metrics;
+import net.william278.huskhomes.position.Home;
+import net.william278.huskhomes.position.SavedPosition;
+import net.william278.huskhomes.position.Warp;
+import org.bukkit.scheduler.BukkitTask;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+import java.util.logging.Level;
+
+/**
+ * Write-behind queue for {@link SavedPosition} meta tag updates
+ * <p>
+ * Updates to the same position made within the flush delay are coalesced, so only the latest tags are written. Queued
+ * updates are written off the main thread in one batch, so the database writes don't count against tick time; only one
+ * batch is written at a time. {@link #drain()} writes any that remain synchronously on plugin disable.
+ */
+public class MetaTagWriter {
+
+    private static final long FLUSH_DELAY_TICKS = 20L;
+
+    private final HuskHomesGui plugin;
+    private final Map<UUID, PendingWrite> pending = new LinkedHashMap<>();
+    private final Object flushLock = new Object();
+    private BukkitTask flushTask;
+
+    public MetaTagWriter(@NotNull HuskHomesGui plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Queue the current meta tags of a position to be written to the database
+     *
+     * @param position The home or warp to write the tags of
+     */
+    public void queue(@NotNull SavedPosition position) {
+        final PendingWrite write = new PendingWrite(position, new HashMap<>(position.getMeta().getTags()));
+        synchronized (this) {
+            pending.put(position.getUuid(), write);
+            if (flushTask == null) {
+                flushTask = plugin.getServer().getScheduler()
+                        .runTaskLaterAsynchronously(plugin, this::flush, FLUSH_DELAY_TICKS);
+            }
+        }
+    }
+
+    /**
+     * Cancel the scheduled flush and write all queued updates on the calling thread, waiting for a flush that is
+     * already in progress to finish first
+     */
+    public void drain() {
+        synchronized (this) {
+            if (flushTask != null) {
+                flushTask.cancel();
+            }
+        }
+        flush();
+    }
+
+    // Write all queued updates in one batch, one flush at a time
+    private void flush() {
+        synchronized (flushLock) {
+            final List<PendingWrite> batch;
+            synchronized (this) {
+                batch = new ArrayList<>(pending.values());
+                pending.clear();
+                flushTask = null;
+            }
+
+            final HuskHomesAPI api = HuskHomesAPI.getInstance();
+            for (PendingWrite write : batch) {
+                final long start = Metrics.start();
+                try {
+                    if (write.position() instanceof Warp warp) {
+                        api.setWarpMetaTags(warp, write.tags());
+                    } else if (write.position() instanceof Home home) {
+                        api.setHomeMetaTags(home, write.tags());
+                    }
+                } catch (Exception e) {
+                    plugin.getLogger().log(Level.WARNING, "Failed to save meta tags for "
+                                                          + write.position().getName(), e);
+                } finally {
+                    Metrics.record(Metrics.Operation.HUSKHOMES_META_TAGS, start);
+                }
+            }
+        }
+    }
+
+    private record PendingWrite(@NotNull SavedPosition position, @NotNull Map<String, String> tags) {
+    }
+
+}
@@ -0,0 +1,185 @@
+/*
+ * This file is part of HuskHomesGUI, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.gui.menu;
+
+import net.william278.huskhomes.position.Home;
+import net.william278.huskhomes.position.SavedPosition;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * A trigram index over the names, owners and descriptions of a list of positions
+ * <p>
+ * Each position is indexed by every three-character sequence of its lower-cased searchable text. A query is answered
+ * by intersecting the postings of its own trigrams, smallest first, and checking the few remaining candidates actually
+ * contain the query. Queries shorter than a trigram are answered by scanning the pre-lowered text instead, which is
+ * still cheap as nothing has to be formatted.
+ *
+ * @param <T> The type of position indexed
+ */
+final class SearchIndex<T extends SavedPosition> {
+
+    private static final int GRAM_LENGTH = 3;
+    private static final int[] NO_MATCHES = new int[0];
+
+    private final List<T> positions;
+    private final String[] documents;
+    private final Map<String, int[]> postings;
+
+    SearchIndex(@NotNull List<T> positions) {
+        this.positions = positions;
+        this.documents = new String[positions.size()];
+
+        final Map<String, Postings> building = new HashMap<>();
+        for (int i = 0; i < documents.length; i++) {
+            final String document = getSearchableText(positions.get(i));
+            documents[i] = document;
+            for (int start = 0; start + GRAM_LENGTH <= document.length(); start++) {
+                building.computeIfAbsent(document.substring(start, start + GRAM_LENGTH), gram -> new Postings())
+                        .add(i);
+            }
+        }
+
+        this.postings = new HashMap<>(building.size() * 2);
+        building.forEach((gram, ids) -> postings.put(gram, ids.toArray()));
+    }
+
+    // Join the searchable fields with line breaks, so no trigram spans two fields
+    @NotNull
+    private static String getSearchableText(@NotNull SavedPosition position) {
+        final StringBuilder text = new StringBuilder(position.getMeta().getName());
+        if (position instanceof Home home) {
+            text.append('\n').append(home.getOwner().getUsername());
+        }
+        text.append('\n').append(position.getMeta().getDescription());
+        return text.toString().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Find the positions whose name, owner or description contains a query, ignoring case
+     *
+     * @param query The search query
+     * @return The indexes of the matching positions, in ascending order; or {@code null} if the query is blank
+     */
+    @Nullable
+    int[] find(@NotNull String query) {
+        final String needle = query.trim().toLowerCase(Locale.ROOT);
+        if (needle.isEmpty()) {
+            return null;
+        }
+
+        final int[] candidates = needle.length() < GRAM_LENGTH ? null : getCandidates(needle);
+        final int count = candidates != null ? candidates.length : documents.length;
+        final int[] matches = new int[count];
+        int size = 0;
+        for (int i = 0; i < count; i++) {
+            final int id = candidates != null ? candidates[i] : i;
+            if (documents[id].contains(needle)) {
+                matches[size++] = id;
+            }
+        }
+        return Arrays.copyOf(matches, size);
+    }
+
+    /**
+     * Find the positions whose name, owner or description contains a query, ignoring case
+     *
+     * @param query The search query
+     * @return The matching positions, in list order; all positions if the query is blank
+     */
+    @NotNull
+    List<T> search(@NotNull String query) {
+        final int[] matches = find(query);
+        if (matches == null) {
+            return positions;
+        }
+        final List<T> found = new ArrayList<>(matches.length);
+        for (int id : matches) {
+            found.add(positions.get(id));
+        }
+        return found;
+    }
+
+    // Intersect the postings of every trigram in the query, starting with the rarest
+    @NotNull
+    private int[] getCandidates(@NotNull String needle) {
+        final List<int[]> lists = new ArrayList<>(needle.length() - GRAM_LENGTH + 1);
+        for (int start = 0; start + GRAM_LENGTH <= needle.length(); start++) {
+            final int[] ids = postings.get(needle.substring(start, start + GRAM_LENGTH));
+            if (ids == null) {
+                return NO_MATCHES;
+            }
+            lists.add(ids);
+        }
+        lists.sort(Comparator.comparingInt(ids -> ids.length));
+
+        int[] candidates = lists.get(0);
+        for (int i = 1; i < lists.size() && candidates.length > 0; i++) {
+            candidates = intersect(candidates, lists.get(i));
+        }
+        return candidates;
+    }
+
+    @NotNull
+    private static int[] intersect(@NotNull int[] a, @NotNull int[] b) {
+        final int[] result = new int[Math.min(a.length, b.length)];
+        int size = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                result[size++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    // A growable, ascending list of position indexes, added to in order
+    private static final class Postings {
+
+        private int[] ids = new int[4];
+        private int size;
+
+        private void add(int id) {
+            if (size > 0 && ids[size - 1] == id) {
+                return;
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+
+        @NotNull
+        private int[] toArray() {
+            return Arrays.copyOf(ids, size);
+        }
+
+    }
+
+}
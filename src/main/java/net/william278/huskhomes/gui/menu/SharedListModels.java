@@ -0,0 +1,202 @@
+/*
+ * This file is part of HuskHomesGUI, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.gui.menu;
+
+import net.william278.huskhomes.gui.config.ConfigSnapshot;
+import net.william278.huskhomes.gui.network.PositionChange;
+import net.william278.huskhomes.position.Home;
+import net.william278.huskhomes.position.SavedPosition;
+import net.william278.huskhomes.position.Warp;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+
+/**
+ * Shared models of the public home and warp lists, which are the same for every viewer
+ * <p>
+ * A model is built by the first viewer to open a list and reused by later viewers for as long as it is valid: built
+ * with the current config, not invalidated since, and listing the same positions with the same names, descriptions,
+ * privacy, icons, owners, owner names and locations. The location matters as well as what is rendered, since clicking
+ * an entry teleports to the position held by the model. Viewer-specific behaviour, like edit permissions, is checked
+ * by the menu when clicked.
+ */
+public class SharedListModels {
+
+    private final Shared<Home> publicHomes = new Shared<>(ListModel::publicHomes);
+    private final Shared<Warp> warps = new Shared<>(ListModel::warps);
+
+    /**
+     * Get the shared public homes model, building it if the list has changed
+     *
+     * @param config The current config
+     * @param homes  The public homes to list
+     * @return The shared model
+     */
+    @NotNull
+    public ListModel<Home> publicHomes(@NotNull ConfigSnapshot config, @NotNull List<Home> homes) {
+        return publicHomes.get(config, homes);
+    }
+
+    /**
+     * Get the shared warps model, building it if the list has changed
+     *
+     * @param config The current config
+     * @param warps  The warps to list
+     * @return The shared model
+     */
+    @NotNull
+    public ListModel<Warp> warps(@NotNull ConfigSnapshot config, @NotNull List<Warp> warps) {
+        return this.warps.get(config, warps);
+    }
+
+    /**
+     * Mark the shared list a position may be in as stale, so the next viewer gets a freshly built model
+     * <p>
+     * Edits to private homes leave the public homes model alone, unless it still lists the home because it was public
+     * before the edit.
+     *
+     * @param position The edited position
+     */
+    void invalidate(@NotNull SavedPosition position) {
+        if (position instanceof Warp) {
+            warps.invalidate();
+        } else if (position instanceof Home home) {
+            if (home.isPublic()) {
+                publicHomes.invalidate();
+            } else {
+                publicHomes.invalidate(home.getUuid());
+            }
+        }
+    }
+
+    /**
+     * Mark the shared list as stale if it lists a position that was edited on another server
+     *
+     * @param position The id of the edited position
+     * @param type     The type of the edited position
+     */
+    void invalidate(@NotNull UUID position, @NotNull PositionChange.Type type) {
+        switch (type) {
+            case WARP -> warps.invalidate(position);
+            case HOME -> publicHomes.invalidate(position);
+        }
+    }
+
+    // A shared model, and the version and contents it was built from
+    private static final class Shared<T extends SavedPosition> {
+
+        private final BiFunction<ConfigSnapshot, List<T>, ListModel<T>> factory;
+        private final AtomicLong version = new AtomicLong();
+        private ListModel<T> model;
+        private List<Fingerprint> fingerprints;
+        private long builtVersion;
+
+        private Shared(@NotNull BiFunction<ConfigSnapshot, List<T>, ListModel<T>> factory) {
+            this.factory = factory;
+        }
+
+        // Viewers opening the list together wait for one build, rather than each building their own
+        @NotNull
+        private synchronized ListModel<T> get(@NotNull ConfigSnapshot config, @NotNull List<T> positions) {
+            final long current = version.get();
+            if (model != null && builtVersion == current && model.getConfig() == config && matches(positions)) {
+                return model;
+            }
+
+            final List<Fingerprint> built = new ArrayList<>(positions.size());
+            positions.forEach(position -> built.add(Fingerprint.of(position)));
+            this.model = factory.apply(config, positions);
+            this.fingerprints = built;
+            this.builtVersion = current;
+            return model;
+        }
+
+        private static String getOwnerName(@NotNull SavedPosition position) {
+            return position instanceof Home home ? home.getOwner().getUsername() : null;
+        }
+
+        private boolean matches(@NotNull List<T> positions) {
+            if (positions.size() != fingerprints.size()) {
+                return false;
+            }
+            for (int i = 0; i < positions.size(); i++) {
+                if (!fingerprints.get(i).matches(positions.get(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void invalidate() {
+            version.incrementAndGet();
+        }
+
+        private synchronized void invalidate(@NotNull UUID position) {
+            if (fingerprints != null && fingerprints.stream().anyMatch(print -> print.uuid().equals(position))) {
+                invalidate();
+            }
+        }
+
+    }
+
+    // The fields of a position that are rendered in a list entry or used when it is clicked
+    private record Fingerprint(@NotNull UUID uuid, @NotNull String name, @NotNull String description,
+                               String icon, boolean isPublic, UUID owner, String ownerName, @NotNull UUID world,
+                               double x, double y, double z, float yaw, float pitch, @NotNull String server) {
+
+        @NotNull
+        private static Fingerprint of(@NotNull SavedPosition position) {
+            return new Fingerprint(position.getUuid(), position.getMeta().getName(),
+                    position.getMeta().getDescription(), position.getMeta().getTags().get(Menu.TAG_KEY),
+                    position instanceof Home home && home.isPublic(), getOwner(position), getOwnerName(position),
+                    position.getWorld().getUuid(), position.getX(), position.getY(), position.getZ(),
+                    position.getYaw(), position.getPitch(), position.getServer());
+        }
+
+        private static UUID getOwner(@NotNull SavedPosition position) {
+            return position instanceof Home home ? home.getOwner().getUuid() : null;
+        }
+
+        private static String getOwnerName(@NotNull SavedPosition position) {
+            return position instanceof Home home ? home.getOwner().getUsername() : null;
+        }
+
+        private boolean matches(@NotNull SavedPosition position) {
+            return uuid.equals(position.getUuid())
+                   && name.equals(position.getMeta().getName())
+                   && description.equals(position.getMeta().getDescription())
+                   && Objects.equals(icon, position.getMeta().getTags().get(Menu.TAG_KEY))
+                   && isPublic == (position instanceof Home home && home.isPublic())
+                   && Objects.equals(owner, getOwner(position))
+                   && Objects.equals(ownerName, getOwnerName(position))
+                   && world.equals(position.getWorld().getUuid())
+                   && x == position.getX() && y == position.getY() && z == position.getZ()
+                   && yaw == position.getYaw() && pitch == position.getPitch()
+                   && server.equals(position.getServer());
+        }
+
+    }
+
+}
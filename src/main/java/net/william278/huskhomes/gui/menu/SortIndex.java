@@ -0,0 +1,204 @@
+/*
+ * This file is part of HuskHomesGUI, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.gui.menu;
+
+import net.william278.huskhomes.position.Home;
+import net.william278.huskhomes.position.Position;
+import net.william278.huskhomes.position.SavedPosition;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Sort keys and cached sort orders for a list of positions
+ * <p>
+ * Keys are computed once from the positions: the order of names, ranks of the distinct world and owner names, creation
+ * times and coordinates. Orders are arrays of indexes into the list. The name order is computed with the keys, and
+ * other fixed orders are computed from the primitive keys the first time they are used, then cached. Distance depends
+ * on the viewer, so it is sorted on each request, from a packed primitive key.
+ */
+final class SortIndex {
+
+    private final int size;
+    private final int[] nameOrder;
+    private final int[] nameRanks;
+    private final int[] worldRanks;
+    private final int[] ownerRanks;
+    private final long[] created;
+    private final String[] worlds;
+    private final String[] servers;
+    private final double[] x;
+    private final double[] z;
+    private final Map<SortMode, int[]> orders = new EnumMap<>(SortMode.class);
+
+    SortIndex(@NotNull List<? extends SavedPosition> positions) {
+        this.size = positions.size();
+        this.worlds = new String[size];
+        this.servers = new String[size];
+        this.x = new double[size];
+        this.z = new double[size];
+        this.created = new long[size];
+
+        final String[] names = new String[size];
+        final String[] owners = new String[size];
+        for (int i = 0; i < size; i++) {
+            final SavedPosition position = positions.get(i);
+            names[i] = position.getMeta().getName().toLowerCase(Locale.ROOT);
+            owners[i] = position instanceof Home home ? home.getOwner().getUsername().toLowerCase(Locale.ROOT) : "";
+            worlds[i] = position.getWorld().getName();
+            servers[i] = position.getServer();
+            x[i] = position.getX();
+            z[i] = position.getZ();
+            final Instant creationTime = position.getMeta().getCreationTime();
+            created[i] = creationTime != null ? creationTime.toEpochMilli() : Long.MIN_VALUE;
+        }
+
+        this.nameOrder = sort((a, b) -> {
+            final int compare = names[a].compareTo(names[b]);
+            return compare != 0 ? compare : Integer.compare(a, b);
+        });
+        this.nameRanks = new int[size];
+        for (int rank = 0; rank < size; rank++) {
+            nameRanks[nameOrder[rank]] = rank;
+        }
+        this.worldRanks = rank(worlds);
+        this.ownerRanks = rank(owners);
+        orders.put(SortMode.NAME, nameOrder);
+    }
+
+    // Rank each value among the distinct values, in alphabetical order
+    @NotNull
+    private static int[] rank(@NotNull String[] values) {
+        final TreeMap<String, Integer> distinct = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (String value : values) {
+            distinct.put(value, 0);
+        }
+        int next = 0;
+        for (Map.Entry<String, Integer> entry : distinct.entrySet()) {
+            entry.setValue(next++);
+        }
+        final int[] ranks = new int[values.length];
+        for (int i = 0; i < values.length; i++) {
+            ranks[i] = distinct.get(values[i]);
+        }
+        return ranks;
+    }
+
+    /**
+     * Get the order of the positions for a fixed sort mode
+     *
+     * @param mode The sort mode; not {@link SortMode#DISTANCE}
+     * @return Indexes into the list of positions, in sorted order. This must not be modified.
+     */
+    @NotNull
+    int[] getOrder(@NotNull SortMode mode) {
+        return orders.computeIfAbsent(mode, this::computeOrder);
+    }
+
+    @NotNull
+    private int[] computeOrder(@NotNull SortMode mode) {
+        return switch (mode) {
+            case WORLD -> sortByRank(worldRanks);
+            case OWNER -> sortByRank(ownerRanks);
+            case CREATED -> sort((a, b) -> {
+                final int compare = Long.compare(created[b], created[a]);
+                return compare != 0 ? compare : Integer.compare(nameRanks[a], nameRanks[b]);
+            });
+            case NAME -> nameOrder;
+            case DEFAULT, DISTANCE -> identity();
+        };
+    }
+
+    /**
+     * Get the order of the positions by distance from a viewer, nearest first
+     * <p>
+     * Positions on another world or server are listed last, by name
+     *
+     * @param viewer The position of the viewer
+     * @return Indexes into the list of positions, in sorted order
+     */
+    @NotNull
+    int[] getOrderByDistance(@NotNull Position viewer) {
+        final String world = viewer.getWorld().getName();
+        final String server = viewer.getServer();
+        final long[] keys = new long[size];
+        for (int i = 0; i < size; i++) {
+            final float distance;
+            if (worlds[i].equals(world) && servers[i].equals(server)) {
+                final double dx = x[i] - viewer.getX();
+                final double dz = z[i] - viewer.getZ();
+                distance = (float) Math.min(dx * dx + dz * dz, Float.MAX_VALUE);
+            } else {
+                distance = Float.POSITIVE_INFINITY;
+            }
+            // Non-negative floats order the same as their bits, so the key sorts by distance, then by name
+            keys[i] = ((long) Float.floatToIntBits(distance) << 32) | nameRanks[i];
+        }
+        Arrays.sort(keys);
+
+        final int[] order = new int[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = nameOrder[(int) keys[i]];
+        }
+        return order;
+    }
+
+    // Sort by a rank, then by name, packing both into one primitive key
+    @NotNull
+    private int[] sortByRank(@NotNull int[] ranks) {
+        final long[] keys = new long[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = ((long) ranks[i] << 32) | nameRanks[i];
+        }
+        Arrays.sort(keys);
+
+        final int[] order = new int[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = nameOrder[(int) keys[i]];
+        }
+        return order;
+    }
+
+    @NotNull
+    private int[] sort(@NotNull Comparator<Integer> comparator) {
+        final Integer[] boxed = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            boxed[i] = i;
+        }
+        Arrays.sort(boxed, comparator);
+
+        final int[] order = new int[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = boxed[i];
+        }
+        return order;
+    }
+
+    @NotNull
+    private int[] identity() {
+        final int[] order = new int[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        return order;
+    }
+
+}
@@ -0,0 +1,66 @@
+/*
+ * This file is part of HuskHomesGUI, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.gui.menu;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The orders a {@link ListMenu} can list positions in, cycled through with the sort button
+ */
+enum SortMode {
+    DEFAULT("sort_mode_default"),
+    NAME("sort_mode_name"),
+    WORLD("sort_mode_world"),
+    DISTANCE("sort_mode_distance"),
+    CREATED("sort_mode_created"),
+    OWNER("sort_mode_owner");
+
+    private final String localeKey;
+
+    SortMode(@NotNull String localeKey) {
+        this.localeKey = localeKey;
+    }
+
+    /**
+     * Get the id of the locale naming this mode
+     *
+     * @return The locale id
+     */
+    @NotNull
+    String getLocaleKey() {
+        return localeKey;
+    }
+
+    /**
+     * Get the mode after this one that applies to a type of list; sorting by owner only applies to public homes
+     *
+     * @param type The type of list
+     * @return The next mode
+     */
+    @NotNull
+    SortMode next(@NotNull Menu.Type type) {
+        final SortMode[] modes = values();
+        SortMode next = this;
+        do {
+            next = modes[(next.ordinal() + 1) % modes.length];
+        } while (next == OWNER && type != Menu.Type.PUBLIC_HOME);
+        return next;
+    }
+}
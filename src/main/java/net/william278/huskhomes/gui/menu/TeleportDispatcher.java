@@ -0,0 +1,156 @@
+/*
+ * This file is part of HuskHomesGUI, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.gui.menu;
+
+import net.william278.huskhomes.api.HuskHomesAPI;
+import net.william278.huskhomes.gui.HuskHomesGui;
+import net.william278.huskhomes.gui.metrics.Metrics;
+import net.william278.huskhomes.position.Position;
+import net.william278.huskhomes.position.SavedPosition;
+import net.william278.huskhomes.teleport.TeleportationException;
+import net.william278.huskhomes.user.OnlineUser;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.Method;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Level;
+
+/**
+ * Dispatches teleports chosen from a {@link ListMenu} outside the click handler
+ * <p>
+ * When the player picks a target on this server, its chunk is warmed up straight away: it is loaded asynchronously
+ * where the server supports it, and held loaded with a plugin chunk ticket for a short while. Only the chosen target
+ * is warmed up, and the timed teleport's warmup countdown gives the load time to finish before the player is moved.
+ * The teleport itself is run on the next tick, and failures are reported back to the player with HuskHomes' own
+ * message. This is only used from the main thread.
+ */
+public class TeleportDispatcher {
+
+    // How long to hold a warmed up chunk loaded for, in ticks
+    private static final long CHUNK_TICKET_TICKS = 20L * 15;
+    private static final Method GET_CHUNK_AT_ASYNC = findAsyncChunkLoader();
+
+    private final HuskHomesGui plugin;
+    private final Set<ChunkTicket> tickets = new HashSet<>();
+    private final Set<ChunkTicket> loading = new HashSet<>();
+
+    public TeleportDispatcher(@NotNull HuskHomesGui plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Teleport a player to a position on the next tick, warming up the target chunk first if it is on this server
+     *
+     * @param user   The user to teleport
+     * @param player The player to teleport
+     * @param target The position to teleport to
+     */
+    public void teleport(@NotNull OnlineUser user, @NotNull Player player, @NotNull SavedPosition target) {
+        warmUp(user, target);
+        plugin.runSync(() -> {
+            if (!player.isOnline()) {
+                return;
+            }
+
+            final long start = Metrics.start();
+            try {
+                HuskHomesAPI.getInstance().teleportBuilder(user)
+                        .target(target)
+                        .toTimedTeleport()
+                        .execute();
+            } catch (TeleportationException e) {
+                e.displayMessage(user);
+            } finally {
+                Metrics.record(Metrics.Operation.HUSKHOMES_TELEPORT, start);
+            }
+        });
+    }
+
+    // Start loading the chunk of a position, if it is on this server, and hold it loaded for a short while. On servers
+    // without asynchronous chunk loading, only chunks that are already loaded are held, so a chunk is never loaded on
+    // the main thread.
+    private void warmUp(@NotNull OnlineUser user, @NotNull Position target) {
+        if (!target.getServer().equals(user.getPosition().getServer())) {
+            return;
+        }
+        final World world = plugin.getServer().getWorld(target.getWorld().getUuid());
+        if (world == null) {
+            return;
+        }
+
+        final ChunkTicket ticket = new ChunkTicket(world.getUID(),
+                (int) Math.floor(target.getX()) >> 4, (int) Math.floor(target.getZ()) >> 4);
+        if (tickets.contains(ticket) || loading.contains(ticket)) {
+            return;
+        }
+        if (world.isChunkLoaded(ticket.x(), ticket.z())) {
+            hold(world, ticket);
+            return;
+        }
+        if (GET_CHUNK_AT_ASYNC == null) {
+            return;
+        }
+
+        try {
+            ((CompletableFuture<?>) GET_CHUNK_AT_ASYNC.invoke(world, ticket.x(), ticket.z()))
+                    .whenComplete((chunk, error) -> plugin.runSync(() -> {
+                        loading.remove(ticket);
+                        if (error == null) {
+                            hold(world, ticket);
+                        }
+                    }));
+            loading.add(ticket);
+        } catch (ReflectiveOperationException | ClassCastException e) {
+            plugin.getLogger().log(Level.WARNING, "Failed to load the chunk of a teleport target", e);
+        }
+    }
+
+    // Add a plugin chunk ticket to keep a chunk loaded, and remove it again later
+    private void hold(@NotNull World world, @NotNull ChunkTicket ticket) {
+        if (!plugin.isEnabled() || !tickets.add(ticket)) {
+            return;
+        }
+        world.addPluginChunkTicket(ticket.x(), ticket.z(), plugin);
+        plugin.getServer().getScheduler().runTaskLater(plugin, () -> {
+            world.removePluginChunkTicket(ticket.x(), ticket.z(), plugin);
+            tickets.remove(ticket);
+        }, CHUNK_TICKET_TICKS);
+    }
+
+    // Paper's World#getChunkAtAsync(int, int), if this server has it
+    @Nullable
+    private static Method findAsyncChunkLoader() {
+        try {
+            return World.class.getMethod("getChunkAtAsync", int.class, int.class);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    private record ChunkTicket(@NotNull UUID world, int x, int z) {
+    }
+
+}
@@ -0,0 +1,160 @@
+/*
+ * This file is part of HuskHomesGUI, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.gui.metrics;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free histogram of nanosecond latencies, with log-linear buckets
+ * <p>
+ * Each power of two is split into eight buckets, so a recorded value is off by at most an eighth of itself, as in
+ * HdrHistogram with one significant digit. Buckets are {@link LongAdder}s, so concurrent recording from the main and
+ * async threads doesn't contend.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = SUB_BUCKETS + (63 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+    private final LongAdder count = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0L);
+
+    LatencyHistogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Record a latency
+     *
+     * @param nanos The latency, in nanoseconds
+     */
+    void record(long nanos) {
+        final long value = Math.max(0L, nanos);
+        buckets[getBucket(value)].increment();
+        count.increment();
+        max.accumulate(value);
+    }
+
+    // Values below the sub-bucket count get a bucket each; above, the top bits after the leading one pick the bucket
+    private static int getBucket(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        final int magnitude = 63 - Long.numberOfLeadingZeros(value);
+        final int subBucket = (int) (value >>> (magnitude - SUB_BUCKET_BITS)) - SUB_BUCKETS;
+        return SUB_BUCKETS + (magnitude - SUB_BUCKET_BITS) * SUB_BUCKETS + subBucket;
+    }
+
+    // The highest value that falls into a bucket
+    private static long getBucketUpperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        final int magnitude = (bucket - SUB_BUCKETS) / SUB_BUCKETS + SUB_BUCKET_BITS;
+        final long subBucket = (bucket - SUB_BUCKETS) % SUB_BUCKETS;
+        return ((SUB_BUCKETS + subBucket + 1) << (magnitude - SUB_BUCKET_BITS)) - 1;
+    }
+
+    /**
+     * Take a snapshot of the histogram
+     * <p>
+     * Values recorded while the snapshot is taken may or may not be included
+     *
+     * @return The snapshot
+     */
+    @NotNull
+    public Snapshot snapshot() {
+        final long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets[i].sum();
+            total += counts[i];
+        }
+        return new Snapshot(counts, total, max.get());
+    }
+
+    void reset() {
+        for (LongAdder bucket : buckets) {
+            bucket.reset();
+        }
+        count.reset();
+        max.reset();
+    }
+
+    /**
+     * A point-in-time copy of a histogram
+     */
+    public static final class Snapshot {
+
+        private final long[] counts;
+        private final long total;
+        private final long max;
+
+        private Snapshot(@NotNull long[] counts, long total, long max) {
+            this.counts = counts;
+            this.total = total;
+            this.max = max;
+        }
+
+        public long getCount() {
+            return total;
+        }
+
+        /**
+         * Get the maximum recorded latency
+         *
+         * @return The maximum, in nanoseconds
+         */
+        public long getMax() {
+            return max;
+        }
+
+        /**
+         * Get a percentile of the recorded latencies
+         *
+         * @param percentile The percentile, from {@code 0} to {@code 100}
+         * @return The upper bound of the bucket the percentile falls in, in nanoseconds; {@code 0} if nothing was
+         * recorded
+         */
+        public long getPercentile(double percentile) {
+            if (total == 0) {
+                return 0L;
+            }
+            final long rank = Math.max(1L, (long) Math.ceil(total * percentile / 100d));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(getBucketUpperBound(i), max);
+                }
+            }
+            return max;
+        }
+
+    }
+
+}
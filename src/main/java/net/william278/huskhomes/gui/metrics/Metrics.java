@@ -0,0 +1,121 @@
+/*
+ * This file is part of HuskHomesGUI, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.gui.metrics;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Latency metrics for the menu and locale hot paths, shown by {@code /huskhomesgui stats}
+ * <p>
+ * Timing a call takes a {@link #start()} and a {@link #record(Operation, long)}. While metrics are disabled,
+ * {@code start()} returns {@code 0} without reading the clock and {@code record} ignores it, so instrumented code only
+ * pays for a volatile read. Metrics are enabled with {@code metrics.enabled} in the config.
+ */
+public final class Metrics {
+
+    private static final Map<Operation, LatencyHistogram> HISTOGRAMS = new EnumMap<>(Operation.class);
+    private static volatile boolean enabled;
+
+    static {
+        for (Operation operation : Operation.values()) {
+            HISTOGRAMS.put(operation, new LatencyHistogram());
+        }
+    }
+
+    private Metrics() {
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean enabled) {
+        Metrics.enabled = enabled;
+    }
+
+    /**
+     * Start timing an operation
+     *
+     * @return The start time to pass to {@link #record(Operation, long)}, or {@code 0} if metrics are disabled
+     */
+    public static long start() {
+        return enabled ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * Record the latency of an operation started with {@link #start()}
+     *
+     * @param operation The operation
+     * @param start     The start time returned by {@link #start()}
+     */
+    public static void record(@NotNull Operation operation, long start) {
+        if (start != 0L) {
+            HISTOGRAMS.get(operation).record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Get the latency histogram of an operation
+     *
+     * @param operation The operation
+     * @return A snapshot of the histogram
+     */
+    @NotNull
+    public static LatencyHistogram.Snapshot getSnapshot(@NotNull Operation operation) {
+        return HISTOGRAMS.get(operation).snapshot();
+    }
+
+    /**
+     * Clear all recorded latencies
+     */
+    public static void reset() {
+        HISTOGRAMS.values().forEach(LatencyHistogram::reset);
+    }
+
+    /**
+     * The instrumented operations
+     */
+    public enum Operation {
+        MENU_SHOW("menu_show"),
+        LIST_MODEL_BUILD("list_model_build"),
+        LIST_MENU_BUILD("list_menu_build"),
+        EDIT_MENU_BUILD("edit_menu_build"),
+        LOCALE_FORMAT("locale_format"),
+        HUSKHOMES_TELEPORT("huskhomes_teleport"),
+        HUSKHOMES_EDIT("huskhomes_edit"),
+        HUSKHOMES_META_TAGS("huskhomes_meta_tags"),
+        WARM_UP("warm_up");
+
+        private final String id;
+
+        Operation(@NotNull String id) {
+            this.id = id;
+        }
+
+        @NotNull
+        public String getId() {
+            return id;
+        }
+    }
+
+}
@@ -0,0 +1,54 @@
+/*
+ * This file is part of HuskHomesGUI, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.gui.network;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.function.Consumer;
+
+/**
+ * Carries {@link PositionChange}s between the servers of a network
+ * <p>
+ * Changes are delivered to the subscribers of every other connected bus, on the main server thread. Delivery is best
+ * effort; menu caches still check the positions they are given when a list is opened, so a lost change only means a
+ * list is rebuilt later rather than served stale.
+ */
+public interface InvalidationBus {
+
+    /**
+     * Send a change to the other servers
+     *
+     * @param change The change to send
+     */
+    void publish(@NotNull PositionChange change);
+
+    /**
+     * Listen for changes sent by the other servers
+     *
+     * @param listener The listener to call with each received change
+     */
+    void subscribe(@NotNull Consumer<PositionChange> listener);
+
+    /**
+     * Disconnect from the bus, dropping all subscribers
+     */
+    void close();
+
+}
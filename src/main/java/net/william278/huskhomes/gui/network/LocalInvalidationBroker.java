@@ -0,0 +1,82 @@
+/*
+ * This file is part of HuskHomesGUI, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.gui.network;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * An in-memory stand-in for the proxy, connecting {@link InvalidationBus}es in the same JVM
+ * <p>
+ * A change published on one bus is delivered to the subscribers of every other bus connected to the broker,
+ * synchronously on the publishing thread. A broker with a single bus connected is used when cross-server invalidation
+ * is turned off, and several plugin instances can share one to exercise invalidation without a network.
+ */
+public class LocalInvalidationBroker {
+
+    private final List<LocalBus> buses = new CopyOnWriteArrayList<>();
+
+    /**
+     * Connect a new bus to this broker
+     *
+     * @return The connected bus
+     */
+    @NotNull
+    public InvalidationBus connect() {
+        final LocalBus bus = new LocalBus();
+        buses.add(bus);
+        return bus;
+    }
+
+    // Deliver a change to every other bus, as the proxy forwards it to every other server
+    private void deliver(@NotNull LocalBus from, @NotNull PositionChange change) {
+        for (LocalBus bus : buses) {
+            if (bus != from) {
+                bus.listeners.forEach(listener -> listener.accept(change));
+            }
+        }
+    }
+
+    private final class LocalBus implements InvalidationBus {
+
+        private final List<Consumer<PositionChange>> listeners = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void publish(@NotNull PositionChange change) {
+            deliver(this, change);
+        }
+
+        @Override
+        public void subscribe(@NotNull Consumer<PositionChange> listener) {
+            listeners.add(listener);
+        }
+
+        @Override
+        public void close() {
+            buses.remove(this);
+            listeners.clear();
+        }
+
+    }
+
+}
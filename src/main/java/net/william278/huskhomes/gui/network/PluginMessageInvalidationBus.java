@@ -0,0 +1,158 @@
+/*
+ * This file is part of HuskHomesGUI, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.gui.network;
+
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.messaging.PluginMessageListener;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+
+/**
+ * An {@link InvalidationBus} over the BungeeCord plugin messaging channel, which Velocity also supports
+ * <p>
+ * Changes are sent with the {@code Forward} sub-channel to all other servers. Plugin messages are carried by a player
+ * connection, so changes published while nobody is online on this server are queued, keeping the latest change for
+ * each position, and sent shortly after the next player joins. Changes still queued when the server stops are lost.
+ * This is only used from the main thread.
+ */
+public class PluginMessageInvalidationBus implements InvalidationBus, PluginMessageListener, Listener {
+
+    private static final String CHANNEL = "BungeeCord";
+    private static final String SUB_CHANNEL = "huskhomesgui:invalidate";
+    private static final int MAX_QUEUED = 1024;
+    // Give the proxy connection of a joining player time to be set up before sending through it
+    private static final long JOIN_FLUSH_DELAY_TICKS = 20L;
+
+    private final Plugin plugin;
+    private final List<Consumer<PositionChange>> listeners = new CopyOnWriteArrayList<>();
+    private final Map<UUID, PositionChange> queued = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<UUID, PositionChange> eldest) {
+            return size() > MAX_QUEUED;
+        }
+    };
+
+    public PluginMessageInvalidationBus(@NotNull Plugin plugin) {
+        this.plugin = plugin;
+        plugin.getServer().getMessenger().registerOutgoingPluginChannel(plugin, CHANNEL);
+        plugin.getServer().getMessenger().registerIncomingPluginChannel(plugin, CHANNEL, this);
+        plugin.getServer().getPluginManager().registerEvents(this, plugin);
+    }
+
+    @Override
+    public void publish(@NotNull PositionChange change) {
+        final Player carrier = plugin.getServer().getOnlinePlayers().stream().findAny().orElse(null);
+        if (carrier == null) {
+            queued.remove(change.position());
+            queued.put(change.position(), change);
+            return;
+        }
+        send(carrier, change);
+    }
+
+    @EventHandler
+    public void onPlayerJoin(@NotNull PlayerJoinEvent event) {
+        if (!queued.isEmpty()) {
+            plugin.getServer().getScheduler().runTaskLater(plugin, this::flush, JOIN_FLUSH_DELAY_TICKS);
+        }
+    }
+
+    // Send the changes queued while nobody was online, if someone still is
+    private void flush() {
+        final Player carrier = plugin.getServer().getOnlinePlayers().stream().findAny().orElse(null);
+        if (carrier == null || !plugin.isEnabled()) {
+            return;
+        }
+        final List<PositionChange> changes = new ArrayList<>(queued.values());
+        queued.clear();
+        changes.forEach(change -> send(carrier, change));
+    }
+
+    // Forward a change to all other servers through a player's connection
+    private void send(@NotNull Player carrier, @NotNull PositionChange change) {
+        final byte[] data = change.encode();
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + data.length);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeUTF("Forward");
+            out.writeUTF("ALL");
+            out.writeUTF(SUB_CHANNEL);
+            out.writeShort(data.length);
+            out.write(data);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to write position change message", e);
+        }
+        carrier.sendPluginMessage(plugin, CHANNEL, bytes.toByteArray());
+    }
+
+    @Override
+    public void onPluginMessageReceived(@NotNull String channel, @NotNull Player player, @NotNull byte[] message) {
+        if (!channel.equals(CHANNEL)) {
+            return;
+        }
+
+        final PositionChange change;
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(message))) {
+            if (!readSubChannel(in).equals(SUB_CHANNEL)) {
+                return;
+            }
+            final byte[] data = new byte[in.readUnsignedShort()];
+            in.readFully(data);
+            change = PositionChange.decode(data);
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.WARNING, "Received a malformed position change message", e);
+            return;
+        }
+        listeners.forEach(listener -> listener.accept(change));
+    }
+
+    // Read the sub-channel a message starts with; other messages on the shared channel may not start with one
+    @NotNull
+    private static String readSubChannel(@NotNull DataInputStream in) {
+        try {
+            return in.readUTF();
+        } catch (IOException e) {
+            return "";
+        }
+    }
+
+    @Override
+    public void subscribe(@NotNull Consumer<PositionChange> listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void close() {
+        HandlerList.unregisterAll(this);
+        plugin.getServer().getMessenger().unregisterOutgoingPluginChannel(plugin);
+        plugin.getServer().getMessenger().unregisterIncomingPluginChannel(plugin);
+        listeners.clear();
+    }
+
+}
@@ -0,0 +1,93 @@
+/*
+ * This file is part of HuskHomesGUI, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.gui.network;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.*;
+import java.util.UUID;
+
+/**
+ * An event published when a home or warp is edited, so other servers can drop cached menu state for it
+ *
+ * @param origin   The id of the plugin instance that published the change
+ * @param position The id of the changed position
+ * @param type     Whether the position is a home or a warp
+ * @param version  The version of the change, which increases with every change published by an instance
+ */
+public record PositionChange(@NotNull UUID origin, @NotNull UUID position, @NotNull Type type, long version) {
+
+    private static final byte FORMAT = 1;
+
+    /**
+     * Encode this change to send it over the network
+     *
+     * @return The encoded change
+     */
+    @NotNull
+    public byte[] encode() {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(42);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(FORMAT);
+            out.writeLong(origin.getMostSignificantBits());
+            out.writeLong(origin.getLeastSignificantBits());
+            out.writeLong(position.getMostSignificantBits());
+            out.writeLong(position.getLeastSignificantBits());
+            out.writeByte(type.ordinal());
+            out.writeLong(version);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to encode position change", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decode a change received over the network
+     *
+     * @param data The encoded change
+     * @return The decoded change
+     * @throws IOException If the data is not a change in a known format
+     */
+    @NotNull
+    public static PositionChange decode(@NotNull byte[] data) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            final byte format = in.readByte();
+            if (format != FORMAT) {
+                throw new IOException("Unknown position change format " + format);
+            }
+            final UUID origin = new UUID(in.readLong(), in.readLong());
+            final UUID position = new UUID(in.readLong(), in.readLong());
+            final int type = in.readUnsignedByte();
+            if (type >= Type.values().length) {
+                throw new IOException("Unknown position type " + type);
+            }
+            return new PositionChange(origin, position, Type.values()[type], in.readLong());
+        }
+    }
+
+    /**
+     * The type of a changed position
+     */
+    public enum Type {
+        HOME,
+        WARP
+    }
+
+}
@@ -0,0 +1,43 @@
+/*
+ * This file is part of HuskHomesGUI, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.gui.skull;
+
+import org.bukkit.Bukkit;
+import org.jetbrains.annotations.NotNull;
+
+import java.net.URL;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A {@link ProfileResolver} that completes player profiles through the server, which looks them up from Mojang
+ * asynchronously
+ */
+public class BukkitProfileResolver implements ProfileResolver {
+
+    @Override
+    @NotNull
+    public CompletableFuture<Optional<String>> resolveSkin(@NotNull UUID player, @NotNull String name) {
+        return Bukkit.createPlayerProfile(player, name).update()
+                .thenApply(profile -> Optional.ofNullable(profile.getTextures().getSkin()).map(URL::toString));
+    }
+
+}
@@ -0,0 +1,45 @@
+/*
+ * This file is part of HuskHomesGUI, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.gui.skull;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Looks up the skin texture of a player, for showing their head as an icon
+ */
+public interface ProfileResolver {
+
+    /**
+     * Look up the skin of a player
+     * <p>
+     * Lookups may be slow, and must not block the calling thread
+     *
+     * @param player The player's UUID
+     * @param name   The player's username
+     * @return A future completed with the URL of the player's skin texture, or empty if they have none
+     */
+    @NotNull
+    CompletableFuture<Optional<String>> resolveSkin(@NotNull UUID player, @NotNull String name);
+
+}
@@ -0,0 +1,251 @@
+/*
+ * This file is part of HuskHomesGUI, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.gui.skull;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Disk-backed LRU cache of player skin textures, for showing home owners' heads as icons
+ * <p>
+ * Lookups never block: a player whose skin isn't cached yet gets {@code null}, so a placeholder can be shown, while
+ * their skin is looked up in the background. Expired skins are still returned while they are refreshed. Failed
+ * lookups are cached for a short while, so an unreachable profile service isn't asked again on every render. The cache
+ * is kept in a file under the plugin data folder between restarts. This is safe to use from any thread.
+ */
+public class SkullCache {
+
+    public static final Duration DEFAULT_TTL = Duration.ofDays(3);
+    public static final int DEFAULT_MAX_SIZE = 2048;
+    static final Duration FAILURE_TTL = Duration.ofMinutes(10);
+    static final int MAX_LOOKUPS = 8;
+
+    private final Path file;
+    private final ProfileResolver resolver;
+    private final Duration ttl;
+    private final Clock clock;
+    private final Map<UUID, Skin> skins;
+    private final Set<UUID> lookups = new HashSet<>();
+    private final Object fileLock = new Object();
+    private Consumer<UUID> listener = player -> {
+    };
+    private boolean dirty;
+
+    public SkullCache(@NotNull File file, @NotNull ProfileResolver resolver, @NotNull Duration ttl, int maxSize,
+                      @NotNull Clock clock) {
+        this.file = file.toPath();
+        this.resolver = resolver;
+        this.ttl = ttl;
+        this.clock = clock;
+        this.skins = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, Skin> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    public SkullCache(@NotNull File file, @NotNull ProfileResolver resolver) {
+        this(file, resolver, DEFAULT_TTL, DEFAULT_MAX_SIZE, Clock.systemUTC());
+    }
+
+    /**
+     * Get the skin of a player, looking it up in the background if it isn't cached or has expired
+     *
+     * @param player The player's UUID
+     * @param name   The player's username
+     * @return The URL of the player's skin texture; or {@code null} if it isn't known yet, or they have none
+     */
+    @Nullable
+    public String getSkin(@NotNull UUID player, @NotNull String name) {
+        final String url;
+        final boolean lookUp;
+        synchronized (this) {
+            final Skin skin = skins.get(player);
+            lookUp = (skin == null || skin.expiresAt() <= clock.millis()) && startLookup(player);
+            url = skin != null ? skin.url() : null;
+        }
+
+        // Resolve outside the lock, so a resolver that completes straight away doesn't call the listener under it
+        if (lookUp) {
+            lookup(player, name);
+        }
+        return url;
+    }
+
+    /**
+     * Set the listener called with a player's UUID when a lookup finds a new skin for them
+     * <p>
+     * The listener is called on the thread the lookup completes on, which is the thread calling
+     * {@link #getSkin(UUID, String)} if the resolver completes straight away. It is never called while this cache is
+     * locked.
+     *
+     * @param listener The listener
+     */
+    public void setListener(@NotNull Consumer<UUID> listener) {
+        this.listener = listener;
+    }
+
+    // Reserve a lookup, unless one is already running for the player or too many are running at once
+    private boolean startLookup(@NotNull UUID player) {
+        return lookups.size() < MAX_LOOKUPS && lookups.add(player);
+    }
+
+    // Look up a reserved player's skin, and cache the result
+    private void lookup(@NotNull UUID player, @NotNull String name) {
+        CompletableFuture<Optional<String>> future;
+        try {
+            future = resolver.resolveSkin(player, name);
+        } catch (RuntimeException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        future.whenComplete((url, error) -> {
+            final boolean changed;
+            synchronized (this) {
+                lookups.remove(player);
+                final Skin previous = skins.get(player);
+                if (error != null) {
+                    // Keep showing a skin we already had, and try again later
+                    skins.put(player, new Skin(previous != null ? previous.url() : null,
+                            clock.millis() + Math.min(ttl.toMillis(), FAILURE_TTL.toMillis())));
+                    changed = false;
+                } else {
+                    skins.put(player, new Skin(url.orElse(null), clock.millis() + ttl.toMillis()));
+                    changed = !Objects.equals(previous != null ? previous.url() : null, url.orElse(null));
+                }
+                dirty = true;
+            }
+            if (changed) {
+                listener.accept(player);
+            }
+        });
+    }
+
+    /**
+     * Load cached skins from the cache file, keeping any already looked up since this cache was created
+     *
+     * @throws IOException If the file can't be read
+     */
+    public void load() throws IOException {
+        if (!Files.exists(file)) {
+            return;
+        }
+        final Map<UUID, Skin> loaded = new LinkedHashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                final String[] fields = line.split("\t", 3);
+                if (fields.length < 2) {
+                    continue;
+                }
+                try {
+                    loaded.put(UUID.fromString(fields[0]), new Skin(fields.length == 3 && !fields[2].isEmpty()
+                            ? fields[2] : null, Long.parseLong(fields[1])));
+                } catch (IllegalArgumentException ignored) {
+                    // Skip lines that were corrupted or hand-edited
+                }
+            }
+        }
+        synchronized (this) {
+            loaded.forEach(skins::putIfAbsent);
+        }
+    }
+
+    /**
+     * Write the cached skins to the cache file, if they have changed since they were last written
+     *
+     * @throws IOException If the file can't be written
+     */
+    public void save() throws IOException {
+        synchronized (fileLock) {
+            final List<String> lines = takeLines();
+            if (lines == null) {
+                return;
+            }
+            try {
+                write(lines);
+            } catch (IOException e) {
+                synchronized (this) {
+                    dirty = true;
+                }
+                throw e;
+            }
+        }
+    }
+
+    // Get the lines to write to the cache file, or null if nothing has changed
+    @Nullable
+    private synchronized List<String> takeLines() {
+        if (!dirty) {
+            return null;
+        }
+        final List<String> lines = new ArrayList<>(skins.size());
+        skins.forEach((player, skin) -> lines.add(player + "\t" + skin.expiresAt() + "\t"
+                                                  + (skin.url() != null ? skin.url() : "")));
+        dirty = false;
+        return lines;
+    }
+
+    // Write the cache file through a temporary file, so a crash mid-write can't leave it truncated
+    private void write(@NotNull List<String> lines) throws IOException {
+        Files.createDirectories(file.getParent());
+        final Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            for (String line : lines) {
+                writer.write(line);
+                writer.newLine();
+            }
+        }
+        try {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Get the number of cached skins
+     *
+     * @return The cache size
+     */
+    public synchronized int size() {
+        return skins.size();
+    }
+
+    // A cached skin, or a cached absence of one, and when it should be looked up again
+    private record Skin(@Nullable String url, long expiresAt) {
+    }
+
+}
@@ -0,0 +1,59 @@
+/*
+ * This file is part of HuskHomesGUI, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.gui.config;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TextWrapperTest {
+
+    @Test
+    public void testNarrowCharacters() {
+        assertWidth(1, "a", "Z", "7", " ", "é", "ß");
+        assertWidth(1, "Ā", "ő", "ł"); // Latin Extended
+        assertWidth(1, "Ж", "я", "ї"); // Cyrillic
+        assertWidth(1, "Ω", "λ"); // Greek
+        assertWidth(1, "א", "ع"); // Hebrew and Arabic
+    }
+
+    @Test
+    public void testWideCharacters() {
+        assertWidth(2, "主", "城", "附"); // CJK unified ideographs
+        assertWidth(2, "あ", "カ"); // Hiragana and Katakana
+        assertWidth(2, "한", "ᄀ"); // Hangul syllables and Jamo
+        assertWidth(2, "Ａ", "！"); // Fullwidth forms
+        assertWidth(2, "、"); // CJK punctuation
+        assertWidth(2, "𠀀"); // CJK extension B, outside the basic plane
+    }
+
+    @Test
+    public void testLineBreak() {
+        assertEquals(0, TextWrapper.getColumnWidth('\n'));
+    }
+
+    private static void assertWidth(int width, @NotNull String... characters) {
+        for (String character : characters) {
+            assertEquals(width, TextWrapper.getColumnWidth(character.codePointAt(0)), character);
+        }
+    }
+
+}
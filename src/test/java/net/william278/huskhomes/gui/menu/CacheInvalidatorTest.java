@@ -0,0 +1,170 @@
+/*
+ * This file is part of HuskHomesGUI, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.gui.menu;
+
+import be.seeseemelk.mockbukkit.MockBukkit;
+import net.william278.annotaml.Annotaml;
+import net.william278.huskhomes.gui.config.*;
+import net.william278.huskhomes.gui.network.InvalidationBus;
+import net.william278.huskhomes.gui.network.LocalInvalidationBroker;
+import net.william278.huskhomes.gui.network.PositionChange;
+import net.william278.huskhomes.position.*;
+import net.william278.huskhomes.user.User;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.InputStream;
+import java.util.List;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class CacheInvalidatorTest {
+
+    private static final UUID REMOTE_ORIGIN = new UUID(0L, 1L);
+
+    @TempDir
+    private File dataFolder;
+
+    private ConfigSnapshot config;
+    private SharedListModels sharedListModels;
+    private CacheInvalidator invalidator;
+    private InvalidationBus remote;
+    private List<Home> homes;
+    private List<Warp> warps;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        MockBukkit.mock();
+        config = loadConfig();
+        sharedListModels = new SharedListModels();
+        final LocalInvalidationBroker broker = new LocalInvalidationBroker();
+        invalidator = new CacheInvalidator(sharedListModels, new MenuManager(), broker.connect());
+        remote = broker.connect();
+
+        final User owner = User.of(UUID.randomUUID(), "William278");
+        final Home home = Home.from(createPosition(), new PositionMeta("home", ""), owner);
+        home.setPublic(true);
+        homes = List.of(home);
+        warps = List.of(Warp.from(createPosition(), new PositionMeta("warp", "")));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        invalidator.close();
+        MockBukkit.unmock();
+    }
+
+    @Test
+    public void testHomeChangeInvalidatesPublicHomesOnly() {
+        final ListModel<Home> publicHomes = sharedListModels.publicHomes(config, homes);
+        final ListModel<Warp> warpList = sharedListModels.warps(config, warps);
+
+        remote.publish(createChange(homes.get(0).getUuid(), PositionChange.Type.HOME, 1L));
+        assertNotSame(publicHomes, sharedListModels.publicHomes(config, homes));
+        assertSame(warpList, sharedListModels.warps(config, warps));
+    }
+
+    @Test
+    public void testWarpChangeInvalidatesWarpsOnly() {
+        final ListModel<Home> publicHomes = sharedListModels.publicHomes(config, homes);
+        final ListModel<Warp> warpList = sharedListModels.warps(config, warps);
+
+        remote.publish(createChange(warps.get(0).getUuid(), PositionChange.Type.WARP, 1L));
+        assertSame(publicHomes, sharedListModels.publicHomes(config, homes));
+        assertNotSame(warpList, sharedListModels.warps(config, warps));
+    }
+
+    @Test
+    public void testUnlistedChangeKeepsModels() {
+        final ListModel<Home> publicHomes = sharedListModels.publicHomes(config, homes);
+
+        remote.publish(createChange(UUID.randomUUID(), PositionChange.Type.HOME, 1L));
+        assertSame(publicHomes, sharedListModels.publicHomes(config, homes));
+    }
+
+    @Test
+    public void testStaleVersionsIgnored() {
+        final UUID warp = warps.get(0).getUuid();
+        sharedListModels.warps(config, warps);
+        remote.publish(createChange(warp, PositionChange.Type.WARP, 5L));
+        final ListModel<Warp> rebuilt = sharedListModels.warps(config, warps);
+
+        remote.publish(createChange(warp, PositionChange.Type.WARP, 4L));
+        assertSame(rebuilt, sharedListModels.warps(config, warps));
+        remote.publish(createChange(warp, PositionChange.Type.WARP, 5L));
+        assertSame(rebuilt, sharedListModels.warps(config, warps));
+
+        remote.publish(createChange(warp, PositionChange.Type.WARP, 6L));
+        assertNotSame(rebuilt, sharedListModels.warps(config, warps));
+    }
+
+    @Test
+    public void testVersionsComparedPerOrigin() {
+        final UUID warp = warps.get(0).getUuid();
+        sharedListModels.warps(config, warps);
+        remote.publish(createChange(warp, PositionChange.Type.WARP, 5_000L));
+        final ListModel<Warp> rebuilt = sharedListModels.warps(config, warps);
+
+        // A server whose clock is behind still has its newer edit handled
+        remote.publish(new PositionChange(new UUID(0L, 2L), warp, PositionChange.Type.WARP, 4_000L));
+        assertNotSame(rebuilt, sharedListModels.warps(config, warps));
+    }
+
+    @Test
+    public void testRemoteChangeHandledAfterLocalEdit() {
+        final Warp warp = warps.get(0);
+        sharedListModels.warps(config, warps);
+        invalidator.publish(warp);
+        final ListModel<Warp> rebuilt = sharedListModels.warps(config, warps);
+
+        // Remote versions come from another clock, so they aren't compared with this server's own
+        remote.publish(createChange(warp.getUuid(), PositionChange.Type.WARP, 1L));
+        assertNotSame(rebuilt, sharedListModels.warps(config, warps));
+    }
+
+    @NotNull
+    private ConfigSnapshot loadConfig() throws Exception {
+        try (InputStream localesFile = getClass().getClassLoader().getResourceAsStream("locales/en-gb.yml")) {
+            final Settings settings = Annotaml.create(new File(dataFolder, "config.yml"), Settings.class).get();
+            final Locales locales = new Locales(Annotaml.create(LocalesFile.class, localesFile).get().rawLocales);
+            return new ConfigSnapshot(settings, settings.resolveIcons(Logger.getLogger("HuskHomesGUI")), locales,
+                    new TextWrapper(locales, settings.getTextWrapLength()));
+        }
+    }
+
+    @NotNull
+    private static Position createPosition() {
+        return Position.at(0d, 64d, 0d, 0f, 0f, World.from("world", UUID.randomUUID()), "server");
+    }
+
+    @NotNull
+    private static PositionChange createChange(@NotNull UUID position, @NotNull PositionChange.Type type,
+                                               long version) {
+        return new PositionChange(REMOTE_ORIGIN, position, type, version);
+    }
+
+}
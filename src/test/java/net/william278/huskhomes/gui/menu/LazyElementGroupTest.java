@@ -0,0 +1,156 @@
+/*
+ * This file is part of HuskHomesGUI, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.gui.menu;
+
+import be.seeseemelk.mockbukkit.MockBukkit;
+import be.seeseemelk.mockbukkit.MockPlugin;
+import be.seeseemelk.mockbukkit.ServerMock;
+import be.seeseemelk.mockbukkit.entity.PlayerMock;
+import de.themoep.inventorygui.GuiPageElement;
+import de.themoep.inventorygui.InventoryGui;
+import de.themoep.inventorygui.StaticGuiElement;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pins the InventoryGui paging behaviour {@link LazyElementGroup} relies on
+ */
+public class LazyElementGroupTest {
+
+    // 18 item slots per page, with the previous and next buttons on the bottom row
+    private static final String[] LAYOUT = {
+            "ppppppppp",
+            "ppppppppp",
+            " l     n "
+    };
+    private static final int PREVIOUS_SLOT = 19;
+    private static final int NEXT_SLOT = 25;
+
+    private ServerMock server;
+    private MockPlugin plugin;
+    private PlayerMock player;
+
+    @BeforeEach
+    public void setUp() {
+        server = MockBukkit.mock();
+        plugin = MockBukkit.createMockPlugin();
+        player = server.addPlayer();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        MockBukkit.unmock();
+    }
+
+    @Test
+    public void testPageCount() {
+        assertEquals(1, showGui(0).getPageAmount(player));
+        assertEquals(1, showGui(18).getPageAmount(player));
+        assertEquals(2, showGui(19).getPageAmount(player));
+        assertEquals(3, showGui(40).getPageAmount(player));
+    }
+
+    @Test
+    public void testNavigation() {
+        final InventoryGui gui = showGui(40);
+        assertEquals(0, gui.getPageNumber(player));
+        assertTrue(getName(0).endsWith("item_0"));
+
+        player.simulateInventoryClick(NEXT_SLOT);
+        assertEquals(1, gui.getPageNumber(player));
+        assertTrue(getName(0).endsWith("item_18"));
+        assertTrue(getName(17).endsWith("item_35"));
+
+        player.simulateInventoryClick(NEXT_SLOT);
+        assertEquals(2, gui.getPageNumber(player));
+        assertTrue(getName(3).endsWith("item_39"));
+        assertNull(getName(4));
+
+        player.simulateInventoryClick(PREVIOUS_SLOT);
+        assertEquals(1, gui.getPageNumber(player));
+        assertTrue(getName(0).endsWith("item_18"));
+
+        player.simulateInventoryClick(PREVIOUS_SLOT);
+        assertEquals(0, gui.getPageNumber(player));
+        assertTrue(getName(0).endsWith("item_0"));
+    }
+
+    @Test
+    public void testCreatesOnlyViewedPages() {
+        final int[] created = {0};
+        final InventoryGui gui = new InventoryGui(plugin, "Test", LAYOUT);
+        gui.addElement(new LazyElementGroup<>('p', getItems(400), item -> {
+            created[0]++;
+            return new StaticGuiElement('e', new ItemStack(Material.STONE), item);
+        }));
+        addPageElements(gui);
+        gui.show(player);
+        assertEquals(18, created[0]);
+
+        player.simulateInventoryClick(NEXT_SLOT);
+        assertEquals(36, created[0]);
+    }
+
+    // Create a gui with a lazy group over the given number of items and show it to the player
+    @NotNull
+    private InventoryGui showGui(int itemCount) {
+        final InventoryGui gui = new InventoryGui(plugin, "Test", LAYOUT);
+        gui.addElement(new LazyElementGroup<>('p', getItems(itemCount),
+                item -> new StaticGuiElement('e', new ItemStack(Material.STONE), item)));
+        addPageElements(gui);
+        gui.show(player);
+        return gui;
+    }
+
+    private void addPageElements(@NotNull InventoryGui gui) {
+        gui.addElement(new GuiPageElement('l', new ItemStack(Material.ARROW),
+                GuiPageElement.PageAction.PREVIOUS, "Previous"));
+        gui.addElement(new GuiPageElement('n', new ItemStack(Material.ARROW),
+                GuiPageElement.PageAction.NEXT, "Next"));
+    }
+
+    @NotNull
+    private List<String> getItems(int count) {
+        return IntStream.range(0, count).mapToObj(i -> "item_" + i).toList();
+    }
+
+    // Get the display name of the item in a slot of the open gui, or null if the slot is empty
+    @Nullable
+    private String getName(int slot) {
+        final ItemStack item = player.getOpenInventory().getTopInventory().getItem(slot);
+        if (item == null || item.getType() != Material.STONE || item.getItemMeta() == null) {
+            return null;
+        }
+        return item.getItemMeta().getDisplayName();
+    }
+
+}
@@ -0,0 +1,87 @@
+/*
+ * This file is part of HuskHomesGUI, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.gui.network;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LocalInvalidationBrokerTest {
+
+    private LocalInvalidationBroker broker;
+
+    @BeforeEach
+    public void setUp() {
+        broker = new LocalInvalidationBroker();
+    }
+
+    @Test
+    public void testDeliversToOtherBusesOnly() {
+        final InvalidationBus sender = broker.connect();
+        final InvalidationBus first = broker.connect();
+        final InvalidationBus second = broker.connect();
+        final List<PositionChange> sent = subscribe(sender);
+        final List<PositionChange> firstReceived = subscribe(first);
+        final List<PositionChange> secondReceived = subscribe(second);
+
+        final PositionChange change = createChange();
+        sender.publish(change);
+        assertTrue(sent.isEmpty());
+        assertEquals(List.of(change), firstReceived);
+        assertEquals(List.of(change), secondReceived);
+    }
+
+    @Test
+    public void testClosedBusReceivesNothing() {
+        final InvalidationBus sender = broker.connect();
+        final InvalidationBus closed = broker.connect();
+        final List<PositionChange> received = subscribe(closed);
+        closed.close();
+
+        sender.publish(createChange());
+        assertTrue(received.isEmpty());
+    }
+
+    @Test
+    public void testSingleBusDeliversNothing() {
+        final InvalidationBus bus = broker.connect();
+        final List<PositionChange> received = subscribe(bus);
+
+        bus.publish(createChange());
+        assertTrue(received.isEmpty());
+    }
+
+    private static List<PositionChange> subscribe(InvalidationBus bus) {
+        final List<PositionChange> received = new ArrayList<>();
+        bus.subscribe(received::add);
+        return received;
+    }
+
+    private static PositionChange createChange() {
+        return new PositionChange(UUID.randomUUID(), UUID.randomUUID(), PositionChange.Type.HOME, 1L);
+    }
+
+}
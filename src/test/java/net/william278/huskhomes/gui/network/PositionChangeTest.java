@@ -0,0 +1,64 @@
+/*
+ * This file is part of HuskHomesGUI, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.gui.network;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class PositionChangeTest {
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        for (PositionChange.Type type : PositionChange.Type.values()) {
+            final PositionChange change = new PositionChange(UUID.randomUUID(), UUID.randomUUID(), type, 1234567890L);
+            assertEquals(change, PositionChange.decode(change.encode()));
+        }
+    }
+
+    @Test
+    public void testRejectsUnknownFormat() {
+        final byte[] data = new PositionChange(UUID.randomUUID(), UUID.randomUUID(),
+                PositionChange.Type.HOME, 1L).encode();
+        data[0] = 2;
+        assertThrows(IOException.class, () -> PositionChange.decode(data));
+    }
+
+    @Test
+    public void testRejectsUnknownType() {
+        final byte[] data = new PositionChange(UUID.randomUUID(), UUID.randomUUID(),
+                PositionChange.Type.WARP, 1L).encode();
+        data[33] = (byte) PositionChange.Type.values().length;
+        assertThrows(IOException.class, () -> PositionChange.decode(data));
+    }
+
+    @Test
+    public void testRejectsTruncatedData() {
+        final byte[] data = new PositionChange(UUID.randomUUID(), UUID.randomUUID(),
+                PositionChange.Type.HOME, 1L).encode();
+        assertThrows(IOException.class, () -> PositionChange.decode(Arrays.copyOf(data, 20)));
+    }
+
+}
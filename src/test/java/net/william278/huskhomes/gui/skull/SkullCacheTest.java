@@ -0,0 +1,255 @@
+/*
+ * This file is part of HuskHomesGUI, licensed under the Apache License 2.0.
+ *
+ *  Copyright (c) William278 <will27528@gmail.com>
+ *  Copyright (c) contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package net.william278.huskhomes.gui.skull;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SkullCacheTest {
+
+    private static final Duration TTL = Duration.ofDays(1);
+    private static final UUID PLAYER = new UUID(0L, 1L);
+    private static final String SKIN = "http://textures.minecraft.net/texture/first";
+    private static final String NEW_SKIN = "http://textures.minecraft.net/texture/second";
+
+    @TempDir
+    private File dataFolder;
+
+    private StubResolver resolver;
+    private MutableClock clock;
+    private SkullCache cache;
+    private List<UUID> notified;
+
+    @BeforeEach
+    public void setUp() {
+        resolver = new StubResolver();
+        clock = new MutableClock();
+        cache = createCache(SkullCache.DEFAULT_MAX_SIZE);
+        notified = new ArrayList<>();
+        cache.setListener(notified::add);
+    }
+
+    @Test
+    public void testPlaceholderUntilResolved() {
+        assertNull(cache.getSkin(PLAYER, "William278"));
+        assertNull(cache.getSkin(PLAYER, "William278"));
+        assertEquals(1, resolver.calls);
+
+        resolver.complete(PLAYER, SKIN);
+        assertEquals(List.of(PLAYER), notified);
+        assertEquals(SKIN, cache.getSkin(PLAYER, "William278"));
+        assertEquals(1, resolver.calls);
+    }
+
+    @Test
+    public void testExpiredSkinServedWhileRefreshing() {
+        cache.getSkin(PLAYER, "William278");
+        resolver.complete(PLAYER, SKIN);
+
+        clock.advance(TTL.plusSeconds(1));
+        assertEquals(SKIN, cache.getSkin(PLAYER, "William278"));
+        assertEquals(2, resolver.calls);
+
+        resolver.complete(PLAYER, NEW_SKIN);
+        assertEquals(NEW_SKIN, cache.getSkin(PLAYER, "William278"));
+        assertEquals(List.of(PLAYER, PLAYER), notified);
+    }
+
+    @Test
+    public void testUnchangedRefreshDoesNotNotify() {
+        cache.getSkin(PLAYER, "William278");
+        resolver.complete(PLAYER, SKIN);
+
+        clock.advance(TTL.plusSeconds(1));
+        cache.getSkin(PLAYER, "William278");
+        resolver.complete(PLAYER, SKIN);
+        assertEquals(List.of(PLAYER), notified);
+    }
+
+    @Test
+    public void testRetryAfterFailure() {
+        cache.getSkin(PLAYER, "William278");
+        resolver.fail(PLAYER);
+        assertTrue(notified.isEmpty());
+
+        clock.advance(SkullCache.FAILURE_TTL.minusSeconds(1));
+        assertNull(cache.getSkin(PLAYER, "William278"));
+        assertEquals(1, resolver.calls);
+
+        clock.advance(Duration.ofSeconds(1));
+        assertNull(cache.getSkin(PLAYER, "William278"));
+        assertEquals(2, resolver.calls);
+        resolver.complete(PLAYER, SKIN);
+        assertEquals(SKIN, cache.getSkin(PLAYER, "William278"));
+    }
+
+    @Test
+    public void testFailureKeepsPreviousSkin() {
+        cache.getSkin(PLAYER, "William278");
+        resolver.complete(PLAYER, SKIN);
+
+        clock.advance(TTL.plusSeconds(1));
+        cache.getSkin(PLAYER, "William278");
+        resolver.fail(PLAYER);
+        assertEquals(SKIN, cache.getSkin(PLAYER, "William278"));
+        assertEquals(2, resolver.calls);
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEvicted() {
+        cache = createCache(2);
+        final UUID first = new UUID(0L, 1L);
+        final UUID second = new UUID(0L, 2L);
+        final UUID third = new UUID(0L, 3L);
+        resolve(first, SKIN);
+        resolve(second, SKIN);
+        assertEquals(SKIN, cache.getSkin(first, "first"));
+
+        resolve(third, SKIN);
+        assertEquals(2, cache.size());
+        assertEquals(SKIN, cache.getSkin(first, "first"));
+        assertEquals(SKIN, cache.getSkin(third, "third"));
+        assertNull(cache.getSkin(second, "second"));
+    }
+
+    @Test
+    public void testConcurrentLookupsCapped() {
+        for (int i = 0; i < SkullCache.MAX_LOOKUPS; i++) {
+            cache.getSkin(new UUID(1L, i), "player" + i);
+        }
+        final UUID waiting = new UUID(2L, 0L);
+        assertNull(cache.getSkin(waiting, "waiting"));
+        assertEquals(SkullCache.MAX_LOOKUPS, resolver.calls);
+        assertFalse(resolver.pending.containsKey(waiting));
+
+        resolver.complete(new UUID(1L, 0L), SKIN);
+        cache.getSkin(waiting, "waiting");
+        assertEquals(SkullCache.MAX_LOOKUPS + 1, resolver.calls);
+        assertTrue(resolver.pending.containsKey(waiting));
+    }
+
+    @Test
+    public void testListenerCalledOutsideLock() {
+        final SkullCache immediate = new SkullCache(new File(dataFolder, "skulls.tsv"),
+                (player, name) -> CompletableFuture.completedFuture(Optional.of(SKIN)), TTL, 16, clock);
+        final List<Boolean> locked = new ArrayList<>();
+        immediate.setListener(player -> locked.add(Thread.holdsLock(immediate)));
+
+        immediate.getSkin(PLAYER, "William278");
+        assertEquals(List.of(false), locked);
+        assertEquals(SKIN, immediate.getSkin(PLAYER, "William278"));
+    }
+
+    @Test
+    public void testSaveAndLoad() throws IOException {
+        final UUID noSkin = new UUID(0L, 2L);
+        resolve(PLAYER, SKIN);
+        resolve(noSkin, null);
+        cache.save();
+
+        final StubResolver loadedResolver = new StubResolver();
+        final SkullCache loaded = new SkullCache(new File(dataFolder, "skulls.tsv"), loadedResolver, TTL,
+                SkullCache.DEFAULT_MAX_SIZE, clock);
+        loaded.load();
+        assertEquals(2, loaded.size());
+        assertEquals(SKIN, loaded.getSkin(PLAYER, "William278"));
+        assertNull(loaded.getSkin(noSkin, "Steve"));
+        assertEquals(0, loadedResolver.calls);
+
+        clock.advance(TTL.plusSeconds(1));
+        assertEquals(SKIN, loaded.getSkin(PLAYER, "William278"));
+        assertEquals(1, loadedResolver.calls);
+    }
+
+    @NotNull
+    private SkullCache createCache(int maxSize) {
+        return new SkullCache(new File(dataFolder, "skulls.tsv"), resolver, TTL, maxSize, clock);
+    }
+
+    private void resolve(@NotNull UUID player, String skin) {
+        cache.getSkin(player, player.toString());
+        resolver.complete(player, skin);
+    }
+
+    // Resolves skins only when a test completes them
+    private static final class StubResolver implements ProfileResolver {
+
+        private final Map<UUID, CompletableFuture<Optional<String>>> pending = new HashMap<>();
+        private int calls;
+
+        @NotNull
+        @Override
+        public CompletableFuture<Optional<String>> resolveSkin(@NotNull UUID player, @NotNull String name) {
+            calls++;
+            final CompletableFuture<Optional<String>> future = new CompletableFuture<>();
+            pending.put(player, future);
+            return future;
+        }
+
+        private void complete(@NotNull UUID player, String skin) {
+            pending.remove(player).complete(Optional.ofNullable(skin));
+        }
+
+        private void fail(@NotNull UUID player) {
+            pending.remove(player).completeExceptionally(new IOException("Profile service unavailable"));
+        }
+
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+        private void advance(@NotNull Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+    }
+
+}